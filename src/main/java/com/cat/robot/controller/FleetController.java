@@ -0,0 +1,73 @@
+package com.cat.robot.controller;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.FleetRobot;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.Region;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.service.FleetService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/fleet")
+public class FleetController {
+
+    private final FleetService fleetService;
+
+    public FleetController(FleetService fleetService) {
+        this.fleetService = fleetService;
+    }
+
+    @PostMapping("/{robotId}/commands")
+    public ResponseEntity<RobotState> executeCommands(@PathVariable int robotId, @RequestBody List<CommandDTO> commands) {
+        RobotState finalState = fleetService.executeCommands(robotId, commands);
+        return ResponseEntity.ok(finalState);
+    }
+
+    @PostMapping("/commands")
+    public ResponseEntity<Void> executeBulk(@RequestBody List<CommandDTO> commands) {
+        fleetService.executeBulk(commands);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{robotId}/report")
+    public ResponseEntity<RobotState> report(@PathVariable int robotId) {
+        return ResponseEntity.ok(fleetService.getReport(robotId));
+    }
+
+    @GetMapping("/region")
+    public ResponseEntity<List<FleetRobot>> robotsIn(@RequestParam long minX, @RequestParam long minY,
+                                                     @RequestParam long maxX, @RequestParam long maxY) {
+        return ResponseEntity.ok(fleetService.getRobotsIn(new Region(minX, minY, maxX, maxY)));
+    }
+
+    @PostMapping("/region/commands")
+    public ResponseEntity<List<FleetRobot>> executeInRegion(@RequestParam long minX, @RequestParam long minY,
+                                                            @RequestParam long maxX, @RequestParam long maxY,
+                                                            @RequestBody List<CommandDTO> commands) {
+        Region region = new Region(minX, minY, maxX, maxY);
+        return ResponseEntity.ok(fleetService.executeInRegion(region, commands));
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<FleetRobot> nearest(@RequestParam long x, @RequestParam long y) {
+        return ResponseEntity.ok(fleetService.getNearest(new Position(x, y)));
+    }
+
+    @GetMapping(value = "/report", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> fleetReport() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(fleetService.getFleetReport());
+    }
+
+    @PostMapping("/reset")
+    public ResponseEntity<Void> reset() {
+        fleetService.reset();
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.cat.robot.controller;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.ProgramReport;
+import com.cat.robot.service.ProgramService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/robot/programs")
+public class ProgramController {
+
+    private final ProgramService programService;
+
+    public ProgramController(ProgramService programService) {
+        this.programService = programService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ProgramReport> store(@RequestBody List<CommandDTO> commands) {
+        return ResponseEntity.ok(programService.store(commands));
+    }
+
+    @GetMapping("/{programId}")
+    public ResponseEntity<ProgramReport> get(@PathVariable long programId) {
+        return ResponseEntity.ok(programService.get(programId));
+    }
+
+    @PutMapping("/{programId}/commands/{index}")
+    public ResponseEntity<ProgramReport> replaceCommand(@PathVariable long programId, @PathVariable int index,
+                                                        @RequestBody CommandDTO command) {
+        return ResponseEntity.ok(programService.replaceCommand(programId, index, command));
+    }
+
+    @DeleteMapping("/{programId}")
+    public ResponseEntity<Void> delete(@PathVariable long programId) {
+        programService.delete(programId);
+        return ResponseEntity.ok().build();
+    }
+}
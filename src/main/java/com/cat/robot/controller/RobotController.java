@@ -2,11 +2,14 @@ package com.cat.robot.controller;
 
 import com.cat.robot.dto.CommandDTO;
 import com.cat.robot.dto.PlaceRequestDTO;
+import com.cat.robot.model.HistoryEntry;
 import com.cat.robot.model.Position;
 import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationResult;
 import com.cat.robot.service.RobotService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -83,6 +86,28 @@ public class RobotController {
         return ResponseEntity.ok(finalState);
     }
 
+    @PostMapping("/dry-run")
+    public ResponseEntity<SimulationResult> dryRun(@RequestBody List<CommandDTO> commands) {
+        return ResponseEntity.ok(robotService.dryRun(commands));
+    }
+
+    @GetMapping("/history/{sequence}")
+    public ResponseEntity<HistoryEntry> stateAt(@PathVariable long sequence) {
+        return ResponseEntity.ok(robotService.getStateAt(sequence));
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<List<HistoryEntry>> recentHistory(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(robotService.getRecentHistory(limit));
+    }
+
+    @GetMapping(value = "/heatmap", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> heatmap() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(robotService.getHeatmap());
+    }
+
     @PostMapping("/reset")
     public ResponseEntity<Void> reset() {
         robotService.reset();
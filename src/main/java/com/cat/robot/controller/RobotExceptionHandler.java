@@ -1,7 +1,12 @@
 package com.cat.robot.controller;
 
+import com.cat.robot.exception.CommandIndexOutOfRangeException;
+import com.cat.robot.exception.ProgramNotFoundException;
 import com.cat.robot.exception.RobotNotAdjustedException;
+import com.cat.robot.exception.RobotNotFoundException;
 import com.cat.robot.exception.RobotNotPlacedException;
+import com.cat.robot.exception.SimulationRunningException;
+import com.cat.robot.exception.StateNotRetainedException;
 import com.cat.robot.model.ErrorDetails;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,4 +30,34 @@ public class RobotExceptionHandler {
         ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(StateNotRetainedException.class)
+    public ResponseEntity<ErrorDetails> handleStateNotRetainedException(StateNotRetainedException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(RobotNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleRobotNotFoundException(RobotNotFoundException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ProgramNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleProgramNotFoundException(ProgramNotFoundException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(CommandIndexOutOfRangeException.class)
+    public ResponseEntity<ErrorDetails> handleCommandIndexOutOfRangeException(CommandIndexOutOfRangeException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(SimulationRunningException.class)
+    public ResponseEntity<ErrorDetails> handleSimulationRunningException(SimulationRunningException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
 }
@@ -0,0 +1,58 @@
+package com.cat.robot.controller;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationStatus;
+import com.cat.robot.service.SimulationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/simulation")
+public class SimulationController {
+
+    private final SimulationService simulationService;
+
+    public SimulationController(SimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    @PostMapping("/robots/{robotId}/commands")
+    public ResponseEntity<Void> enqueue(@PathVariable int robotId, @RequestBody List<CommandDTO> commands) {
+        simulationService.enqueue(robotId, commands);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/robots/{robotId}")
+    public ResponseEntity<RobotState> state(@PathVariable int robotId) {
+        return ResponseEntity.ok(simulationService.getState(robotId));
+    }
+
+    @PostMapping("/ticks")
+    public ResponseEntity<SimulationStatus> runTicks(@RequestParam(defaultValue = "1") int count) {
+        return ResponseEntity.ok(simulationService.runTicks(count));
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<SimulationStatus> start(@RequestParam(defaultValue = "0") double ticksPerSecond) {
+        return ResponseEntity.ok(simulationService.start(ticksPerSecond));
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<SimulationStatus> stop() {
+        return ResponseEntity.ok(simulationService.stop());
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<SimulationStatus> status() {
+        return ResponseEntity.ok(simulationService.getStatus());
+    }
+
+    @PostMapping("/reset")
+    public ResponseEntity<Void> reset() {
+        simulationService.reset();
+        return ResponseEntity.ok().build();
+    }
+}
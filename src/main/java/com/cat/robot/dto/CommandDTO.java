@@ -4,7 +4,7 @@ import com.cat.robot.model.Direction;
 
 public record CommandDTO(
         String type,
-        Integer x,
-        Integer y,
+        Long x,
+        Long y,
         Direction direction
 ) {}
@@ -3,4 +3,4 @@ package com.cat.robot.dto;
 import com.cat.robot.model.Direction;
 import jakarta.validation.constraints.NotNull;
 
-public record PlaceRequestDTO(@NotNull Integer x, @NotNull Integer y, @NotNull Direction direction) {}
+public record PlaceRequestDTO(@NotNull Long x, @NotNull Long y, @NotNull Direction direction) {}
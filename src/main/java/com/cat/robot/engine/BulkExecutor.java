@@ -0,0 +1,34 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.model.Table;
+
+/**
+ * Applies one program to every robot of a struct-of-arrays fleet, with the same rules as
+ * running the program against each robot through the service one at a time.
+ */
+public interface BulkExecutor {
+
+    /**
+     * Runs the program against robots {@code 0..size-1}. Direction values are
+     * {@link com.cat.robot.model.Direction} ordinals.
+     */
+    void execute(Table table, long[] xs, long[] ys, int[] directions, boolean[] placed, int size, CommandProgram program);
+
+    /**
+     * Returns the vectorized executor when {@code preferVector} is set, the
+     * {@code jdk.incubator.vector} module is present and the JVM offers vectors of at least two
+     * longs, otherwise the scalar one. The Vector API is never allowed to fail startup.
+     */
+    static BulkExecutor create(boolean preferVector) {
+        if (preferVector && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                if (VectorBulkExecutor.isSupported()) {
+                    return new VectorBulkExecutor();
+                }
+            } catch (LinkageError | IllegalArgumentException ex) {
+                // fall through to the scalar executor
+            }
+        }
+        return new ScalarBulkExecutor();
+    }
+}
@@ -0,0 +1,135 @@
+package com.cat.robot.engine;
+
+import java.util.Arrays;
+
+/**
+ * Map from a table cell to a robot id, kept in primitive arrays so per-tick bookkeeping never
+ * allocates a key or boxes a value. Open addressing with linear probing and backward-shift
+ * deletion, so no tombstones build up over many ticks; grown by doubling once three quarters
+ * full. Reads may run concurrently once writes have stopped; writes need a single thread.
+ */
+final class CellMap {
+
+    static final int NONE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] xs;
+    private long[] ys;
+    private int[] ids;
+    private int size;
+
+    CellMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * @return id held for the cell, or {@link #NONE}.
+     */
+    int get(long x, long y) {
+        int mask = ids.length - 1;
+        for (int slot = hash(x, y) & mask; ids[slot] != NONE; slot = (slot + 1) & mask) {
+            if (xs[slot] == x && ys[slot] == y) {
+                return ids[slot];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Holds the id for the cell unless the cell already has one.
+     */
+    void putIfAbsent(long x, long y, int id) {
+        int slot = find(x, y);
+        if (ids[slot] == NONE) {
+            insert(slot, x, y, id);
+        }
+    }
+
+    void put(long x, long y, int id) {
+        int slot = find(x, y);
+        if (ids[slot] == NONE) {
+            insert(slot, x, y, id);
+        } else {
+            ids[slot] = id;
+        }
+    }
+
+    void remove(long x, long y) {
+        int mask = ids.length - 1;
+        int hole = find(x, y);
+        if (ids[hole] == NONE) {
+            return;
+        }
+        for (int slot = (hole + 1) & mask; ids[slot] != NONE; slot = (slot + 1) & mask) {
+            int home = hash(xs[slot], ys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                xs[hole] = xs[slot];
+                ys[hole] = ys[slot];
+                ids[hole] = ids[slot];
+                hole = slot;
+            }
+        }
+        ids[hole] = NONE;
+        size--;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(ids, NONE);
+            size = 0;
+        }
+    }
+
+    /**
+     * @return slot holding the cell, or the empty slot where it would go.
+     */
+    private int find(long x, long y) {
+        int mask = ids.length - 1;
+        int slot = hash(x, y) & mask;
+        while (ids[slot] != NONE && (xs[slot] != x || ys[slot] != y)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, long x, long y, int id) {
+        if ((size + 1) * 4L > ids.length * 3L) {
+            grow();
+            slot = find(x, y);
+        }
+        xs[slot] = x;
+        ys[slot] = y;
+        ids[slot] = id;
+        size++;
+    }
+
+    private void grow() {
+        long[] oldXs = xs;
+        long[] oldYs = ys;
+        int[] oldIds = ids;
+        allocate(oldIds.length * 2);
+        for (int old = 0; old < oldIds.length; old++) {
+            if (oldIds[old] != NONE) {
+                int slot = find(oldXs[old], oldYs[old]);
+                xs[slot] = oldXs[old];
+                ys[slot] = oldYs[old];
+                ids[slot] = oldIds[old];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        xs = new long[capacity];
+        ys = new long[capacity];
+        ids = new int[capacity];
+        Arrays.fill(ids, NONE);
+        size = 0;
+    }
+
+    private static int hash(long x, long y) {
+        long mixed = x * 0x9E3779B97F4A7C15L ^ y * 0xC2B2AE3D27D4EB4FL;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
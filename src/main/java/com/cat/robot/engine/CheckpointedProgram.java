@@ -0,0 +1,129 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.Table;
+
+/**
+ * A stored program together with the robot state every {@code interval} commands of its last
+ * simulation. After a command is replaced, simulation restarts from the checkpoint before it
+ * and stops at the first later checkpoint whose state is unchanged, since everything after
+ * that point must then play out exactly as before. The cost of an edit is therefore bounded
+ * by the distance the change actually propagates, not by the program length.
+ */
+public class CheckpointedProgram {
+
+    private final CommandProgram program;
+    private final int interval;
+    private final RobotSimulator simulator;
+
+    private final boolean[] checkpointPlaced;
+    private final long[] checkpointX;
+    private final long[] checkpointY;
+    private final int[] checkpointDirection;
+    private final int[] segmentIgnored;
+
+    private RobotState finalState;
+    private int ignoredCommands;
+    private int lastSimulatedCommands;
+
+    /**
+     * Stores and fully simulates the program, starting from the given state.
+     *
+     * @param interval number of commands between checkpoints.
+     */
+    public CheckpointedProgram(Table table, RobotState start, CommandProgram program, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1");
+        }
+        this.program = program;
+        this.interval = interval;
+        this.simulator = new RobotSimulator(table);
+
+        int segments = Math.max(1, Math.ceilDiv(program.length(), interval));
+        this.checkpointPlaced = new boolean[segments];
+        this.checkpointX = new long[segments];
+        this.checkpointY = new long[segments];
+        this.checkpointDirection = new int[segments];
+        this.segmentIgnored = new int[segments];
+
+        simulator.load(start);
+        saveCheckpoint(0);
+        simulateFrom(0, false);
+    }
+
+    public int length() {
+        return program.length();
+    }
+
+    public RobotState finalState() {
+        return finalState;
+    }
+
+    public int ignoredCommands() {
+        return ignoredCommands;
+    }
+
+    /**
+     * @return number of commands simulated by the last full run or edit.
+     */
+    public int lastSimulatedCommands() {
+        return lastSimulatedCommands;
+    }
+
+    /**
+     * Replaces one command and brings the final state and ignored count up to date.
+     *
+     * @throws IndexOutOfBoundsException if the index is not inside the program.
+     */
+    public void replace(int index, CommandDTO command) {
+        if (index < 0 || index >= program.length()) {
+            throw new IndexOutOfBoundsException("Command index " + index + " outside program of length " + program.length());
+        }
+        program.set(index, command);
+
+        int segment = index / interval;
+        simulator.load(checkpointPlaced[segment], checkpointX[segment], checkpointY[segment], checkpointDirection[segment]);
+        simulateFrom(segment, true);
+    }
+
+    /**
+     * Simulates segment by segment from the given one, saving checkpoints as it goes. If
+     * {@code stopWhenUnchanged} is set, stops as soon as a checkpoint matches the one stored.
+     */
+    private void simulateFrom(int firstSegment, boolean stopWhenUnchanged) {
+        int segments = segmentIgnored.length;
+        int simulated = 0;
+
+        for (int segment = firstSegment; segment < segments; segment++) {
+            if (segment > firstSegment) {
+                if (stopWhenUnchanged && isAtCheckpoint(segment)) {
+                    lastSimulatedCommands = simulated;
+                    return;
+                }
+                saveCheckpoint(segment);
+            }
+
+            int from = segment * interval;
+            int to = Math.min(program.length(), from + interval);
+            int ignored = simulator.run(program, from, to);
+            ignoredCommands += ignored - segmentIgnored[segment];
+            segmentIgnored[segment] = ignored;
+            simulated += to - from;
+        }
+
+        finalState = simulator.state();
+        lastSimulatedCommands = simulated;
+    }
+
+    private boolean isAtCheckpoint(int segment) {
+        return simulator.isInState(checkpointPlaced[segment], checkpointX[segment], checkpointY[segment], checkpointDirection[segment]);
+    }
+
+    private void saveCheckpoint(int segment) {
+        checkpointPlaced[segment] = simulator.isPlaced();
+        checkpointX[segment] = simulator.x();
+        checkpointY[segment] = simulator.y();
+        checkpointDirection[segment] = simulator.direction();
+    }
+}
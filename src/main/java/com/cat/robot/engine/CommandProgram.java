@@ -0,0 +1,90 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.Direction;
+
+import java.util.List;
+
+/**
+ * A list of commands compiled to one opcode per command with PLACE operands held in parallel
+ * primitive arrays. Commands the service would ignore regardless of robot state (null,
+ * unknown type, PLACE with missing fields) compile to {@link #NOOP}.
+ */
+public final class CommandProgram {
+
+    public static final byte NOOP = 0;
+    public static final byte PLACE = 1;
+    public static final byte MOVE = 2;
+    public static final byte LEFT = 3;
+    public static final byte RIGHT = 4;
+
+    private final byte[] opcodes;
+    private final long[] placeX;
+    private final long[] placeY;
+    private final byte[] placeDirection;
+
+    private CommandProgram(int length) {
+        this.opcodes = new byte[length];
+        this.placeX = new long[length];
+        this.placeY = new long[length];
+        this.placeDirection = new byte[length];
+    }
+
+    public static CommandProgram compile(List<CommandDTO> commands) {
+        CommandProgram program = new CommandProgram(commands == null ? 0 : commands.size());
+        for (int i = 0; i < program.length(); i++) {
+            program.set(i, commands.get(i));
+        }
+        return program;
+    }
+
+    /**
+     * Replaces the command at the given index.
+     */
+    public void set(int index, CommandDTO command) {
+        byte opcode = opcodeOf(command);
+        opcodes[index] = opcode;
+        if (opcode == PLACE) {
+            placeX[index] = command.x();
+            placeY[index] = command.y();
+            placeDirection[index] = (byte) command.direction().ordinal();
+        }
+    }
+
+    public int length() {
+        return opcodes.length;
+    }
+
+    public byte opcode(int index) {
+        return opcodes[index];
+    }
+
+    public long placeX(int index) {
+        return placeX[index];
+    }
+
+    public long placeY(int index) {
+        return placeY[index];
+    }
+
+    /**
+     * @return ordinal of the {@link Direction} of the PLACE command at the given index.
+     */
+    public int placeDirection(int index) {
+        return placeDirection[index];
+    }
+
+    private static byte opcodeOf(CommandDTO command) {
+        if (command == null || command.type() == null) {
+            return NOOP;
+        }
+
+        return switch (command.type().trim().toUpperCase()) {
+            case "PLACE" -> command.x() == null || command.y() == null || command.direction() == null ? NOOP : PLACE;
+            case "MOVE"  -> MOVE;
+            case "LEFT"  -> LEFT;
+            case "RIGHT" -> RIGHT;
+            default      -> NOOP;
+        };
+    }
+}
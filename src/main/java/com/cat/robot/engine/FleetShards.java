@@ -0,0 +1,132 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.model.FleetStore;
+import com.cat.robot.model.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits a fleet into shards of contiguous robot ids. Each shard owns its own
+ * {@link FleetStore} and a single event-loop thread with its own task queue, and only that
+ * thread ever touches the shard's arrays, so no locks are needed on the hot path.
+ * Work for one robot is routed to its shard with {@link #submit}; anything that spans the
+ * fleet must go through {@link #broadcast}, which runs on every shard in parallel.
+ */
+public class FleetShards implements AutoCloseable {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    /**
+     * Work run on a shard's thread against its store, addressed by shard-local robot id.
+     */
+    @FunctionalInterface
+    public interface ShardTask<T> {
+        T run(FleetStore store, int localId);
+    }
+
+    /**
+     * Work run on every shard's thread against its store. {@code firstId} is the fleet-wide id
+     * of the store's robot 0.
+     */
+    @FunctionalInterface
+    public interface BroadcastTask<T> {
+        T run(FleetStore store, int firstId);
+    }
+
+    private final int size;
+    private final int robotsPerShard;
+    private final FleetStore[] stores;
+    private final ExecutorService[] loops;
+
+    /**
+     * @param shards number of shards; 0 or less means one per available processor. Fewer are
+     *               used if some would otherwise be left without robots.
+     */
+    public FleetShards(Table table, int size, int indexCellSize, int shards) {
+        int requested = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.size = size;
+        this.robotsPerShard = Math.max(1, Math.ceilDiv(size, Math.max(1, Math.min(requested, size))));
+        // e.g. 5 robots over 4 shards of 2 fills only 3 shards
+        int count = Math.max(1, Math.ceilDiv(size, robotsPerShard));
+
+        this.stores = new FleetStore[count];
+        this.loops = new ExecutorService[count];
+
+        int pool = POOL_NUMBER.incrementAndGet();
+        for (int shard = 0; shard < count; shard++) {
+            int shardSize = Math.max(0, Math.min(robotsPerShard, size - shard * robotsPerShard));
+            stores[shard] = new FleetStore(table, shardSize, indexCellSize);
+
+            String name = "fleet-" + pool + "-shard-" + shard;
+            loops[shard] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int shardCount() {
+        return stores.length;
+    }
+
+    /**
+     * @return id of the first robot held by the shard.
+     */
+    public int offsetOf(int shard) {
+        return shard * robotsPerShard;
+    }
+
+    /**
+     * Runs the task on the thread of the shard that owns the robot.
+     */
+    public <T> CompletableFuture<T> submit(int robotId, ShardTask<T> task) {
+        int shard = robotId / robotsPerShard;
+        int localId = robotId - offsetOf(shard);
+        return CompletableFuture.supplyAsync(() -> task.run(stores[shard], localId), loops[shard]);
+    }
+
+    /**
+     * Runs the task on every shard at once and waits for all of them.
+     *
+     * @return one result per shard, in shard (and so robot id) order.
+     */
+    public <T> List<T> broadcast(BroadcastTask<T> task) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(stores.length);
+        for (int shard = 0; shard < stores.length; shard++) {
+            FleetStore store = stores[shard];
+            int firstId = offsetOf(shard);
+            futures.add(CompletableFuture.supplyAsync(() -> task.run(store, firstId), loops[shard]));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService loop : loops) {
+            loop.shutdown();
+        }
+        try {
+            for (ExecutorService loop : loops) {
+                loop.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.Table;
+
+/**
+ * Runs compiled programs against a single robot held in primitive fields, applying the same
+ * rules as {@link com.cat.robot.service.RobotServiceImpl} but without touching any live robot.
+ * Unplaced robots always hold position (0, 0) and direction -1 so states compare field by field.
+ */
+public final class RobotSimulator {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Table table;
+    private long x;
+    private long y;
+    private int direction = -1;
+    private boolean placed;
+
+    public RobotSimulator(Table table) {
+        this.table = table;
+    }
+
+    public RobotSimulator(Table table, RobotState state) {
+        this(table);
+        load(state);
+    }
+
+    public void load(RobotState state) {
+        if (state.isPlaced()) {
+            load(true, state.position().x(), state.position().y(), state.direction().ordinal());
+        } else {
+            load(false, 0, 0, -1);
+        }
+    }
+
+    public void load(boolean placed, long x, long y, int direction) {
+        this.placed = placed;
+        this.x = placed ? x : 0;
+        this.y = placed ? y : 0;
+        this.direction = placed ? direction : -1;
+    }
+
+    public boolean isPlaced() {
+        return placed;
+    }
+
+    public long x() {
+        return x;
+    }
+
+    public long y() {
+        return y;
+    }
+
+    /**
+     * @return {@link Direction} ordinal, or -1 when not placed.
+     */
+    public int direction() {
+        return direction;
+    }
+
+    public boolean isInState(boolean placed, long x, long y, int direction) {
+        return this.placed == placed && this.x == x && this.y == y && this.direction == direction;
+    }
+
+    public RobotState state() {
+        if (!placed) {
+            return new RobotState(null, null, false);
+        }
+        return new RobotState(new Position(x, y), DIRECTIONS[direction], true);
+    }
+
+    /**
+     * Runs commands {@code from} (inclusive) to {@code to} (exclusive) of the program.
+     *
+     * @return number of those commands that were ignored.
+     */
+    public int run(CommandProgram program, int from, int to) {
+        int ignored = 0;
+        for (int i = from; i < to; i++) {
+            if (!apply(program, i)) {
+                ignored++;
+            }
+        }
+        return ignored;
+    }
+
+    /**
+     * Applies one command of the program.
+     *
+     * @return true if it changed or could have changed the robot, false if it was ignored.
+     */
+    public boolean apply(CommandProgram program, int index) {
+        switch (program.opcode(index)) {
+            case CommandProgram.PLACE -> {
+                long placeX = program.placeX(index);
+                long placeY = program.placeY(index);
+                if (placed || !table.isInside(placeX, placeY)) {
+                    return false;
+                }
+                load(true, placeX, placeY, program.placeDirection(index));
+                return true;
+            }
+            case CommandProgram.MOVE -> {
+                if (!placed) {
+                    return false;
+                }
+                long nextX = x + (direction == 1 ? 1 : direction == 3 ? -1 : 0);
+                long nextY = y + (direction == 0 ? 1 : direction == 2 ? -1 : 0);
+                if (!table.isInside(nextX, nextY)) {
+                    return false;
+                }
+                x = nextX;
+                y = nextY;
+                return true;
+            }
+            case CommandProgram.LEFT -> {
+                if (!placed) {
+                    return false;
+                }
+                direction = (direction + 3) & 3;
+                return true;
+            }
+            case CommandProgram.RIGHT -> {
+                if (!placed) {
+                    return false;
+                }
+                direction = (direction + 1) & 3;
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+}
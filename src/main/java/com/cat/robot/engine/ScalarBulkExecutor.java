@@ -0,0 +1,63 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.model.Table;
+
+/**
+ * Runs the program one robot at a time. Used when the Vector API is unavailable and for
+ * the tail of the fleet that does not fill a whole vector.
+ */
+public class ScalarBulkExecutor implements BulkExecutor {
+
+    @Override
+    public void execute(Table table, long[] xs, long[] ys, int[] directions, boolean[] placed, int size, CommandProgram program) {
+        executeRange(table, xs, ys, directions, placed, 0, size, program);
+    }
+
+    static void executeRange(Table table, long[] xs, long[] ys, int[] directions, boolean[] placed,
+                             int from, int to, CommandProgram program) {
+        for (int id = from; id < to; id++) {
+            long x = xs[id];
+            long y = ys[id];
+            int direction = directions[id];
+            boolean isPlaced = placed[id];
+
+            for (int i = 0; i < program.length(); i++) {
+                switch (program.opcode(i)) {
+                    case CommandProgram.PLACE -> {
+                        if (!isPlaced && table.isInside(program.placeX(i), program.placeY(i))) {
+                            x = program.placeX(i);
+                            y = program.placeY(i);
+                            direction = program.placeDirection(i);
+                            isPlaced = true;
+                        }
+                    }
+                    case CommandProgram.MOVE -> {
+                        long nextX = x + (direction == 1 ? 1 : direction == 3 ? -1 : 0);
+                        long nextY = y + (direction == 0 ? 1 : direction == 2 ? -1 : 0);
+                        if (isPlaced && table.isInside(nextX, nextY)) {
+                            x = nextX;
+                            y = nextY;
+                        }
+                    }
+                    case CommandProgram.LEFT -> {
+                        if (isPlaced) {
+                            direction = (direction + 3) & 3;
+                        }
+                    }
+                    case CommandProgram.RIGHT -> {
+                        if (isPlaced) {
+                            direction = (direction + 1) & 3;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+
+            xs[id] = x;
+            ys[id] = y;
+            directions[id] = direction;
+            placed[id] = isPlaced;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.Table;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Time-stepped fleet simulation. Every robot has a queue of programs, and on each tick every
+ * robot with queued work takes exactly one command from it. A robot's PLACE or MOVE into a
+ * cell only succeeds if no robot stood on that cell when the tick started and no robot with
+ * a lower id is going for the same cell this tick; otherwise the command is ignored.
+ * <p>
+ * A tick runs a parallel pass over partitions of the fleet on a fork/join pool working out
+ * what every robot wants to do, a sequential pass recording each wanted cell's lowest-id
+ * claimant, a parallel pass deciding which wants succeed, and a sequential pass applying
+ * them. Cells are tracked in primitive {@link CellMap}s, so a tick allocates nothing per
+ * robot. Every decision depends only on the state at the start of the tick and on robot ids,
+ * so results are identical for any number of workers.
+ * <p>
+ * Not safe for concurrent use; callers serialise {@link #tick()} and queue changes.
+ */
+public class TickScheduler implements AutoCloseable {
+
+    private static final int PARTITION_SIZE = 1024;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Table table;
+    private final int size;
+    private final ForkJoinPool pool;
+
+    private final long[] xs;
+    private final long[] ys;
+    private final int[] directions;
+    private final boolean[] placed;
+    private final List<ArrayDeque<CommandProgram>> queues;
+    private final int[] nextCommand;
+
+    private final boolean[] wants;
+    private final long[] targetXs;
+    private final long[] targetYs;
+    private final int[] targetDirections;
+    private final boolean[] granted;
+
+    private final CellMap occupied = new CellMap();
+    private final CellMap claims = new CellMap();
+
+    private long tick;
+
+    /**
+     * @param workers number of fork/join workers; 0 or less means one per available processor.
+     */
+    public TickScheduler(Table table, int size, int workers) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Fleet size must not be negative");
+        }
+        this.table = table;
+        this.size = size;
+        this.pool = new ForkJoinPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+
+        this.xs = new long[size];
+        this.ys = new long[size];
+        this.directions = new int[size];
+        this.placed = new boolean[size];
+        this.queues = new ArrayList<>(Collections.nCopies(size, null));
+        this.nextCommand = new int[size];
+
+        this.wants = new boolean[size];
+        this.targetXs = new long[size];
+        this.targetYs = new long[size];
+        this.targetDirections = new int[size];
+        this.granted = new boolean[size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int workers() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return number of ticks run so far.
+     */
+    public long tickCount() {
+        return tick;
+    }
+
+    /**
+     * Queues the program to run after everything already queued for the robot.
+     */
+    public void enqueue(int id, CommandProgram program) {
+        if (program.length() == 0) {
+            return;
+        }
+        ArrayDeque<CommandProgram> queue = queues.get(id);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues.set(id, queue);
+        }
+        queue.add(program);
+    }
+
+    public RobotState getState(int id) {
+        if (!placed[id]) {
+            return new RobotState(null, null, false);
+        }
+        return new RobotState(new Position(xs[id], ys[id]), DIRECTIONS[directions[id]], true);
+    }
+
+    /**
+     * Advances every robot by one command.
+     */
+    public void tick() {
+        pool.invoke(new Partition(0, size, Pass.INTENT));
+        claims.clear();
+        for (int id = 0; id < size; id++) {
+            if (wants[id]) {
+                // ids ascend, so the first claim on a cell is the lowest
+                claims.putIfAbsent(targetXs[id], targetYs[id], id);
+            }
+        }
+        pool.invoke(new Partition(0, size, Pass.RESOLVE));
+
+        for (int id = 0; id < size; id++) {
+            if (granted[id]) {
+                if (placed[id]) {
+                    occupied.remove(xs[id], ys[id]);
+                } else {
+                    directions[id] = targetDirections[id];
+                    placed[id] = true;
+                }
+                xs[id] = targetXs[id];
+                ys[id] = targetYs[id];
+                occupied.put(xs[id], ys[id], id);
+            }
+        }
+        tick++;
+    }
+
+    /**
+     * Removes every robot from the table and drops all queued programs.
+     */
+    public void reset() {
+        Arrays.fill(placed, false);
+        Collections.fill(queues, null);
+        Arrays.fill(nextCommand, 0);
+        occupied.clear();
+        tick = 0;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Takes the robot's next command, turning it straight away or recording the cell it wants
+     * to enter.
+     */
+    private void takeCommand(int id) {
+        wants[id] = false;
+        granted[id] = false;
+
+        ArrayDeque<CommandProgram> queue = queues.get(id);
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        CommandProgram program = queue.peek();
+        int index = nextCommand[id]++;
+        if (nextCommand[id] == program.length()) {
+            queue.poll();
+            nextCommand[id] = 0;
+        }
+
+        switch (program.opcode(index)) {
+            case CommandProgram.PLACE -> {
+                if (!placed[id] && table.isInside(program.placeX(index), program.placeY(index))) {
+                    want(id, program.placeX(index), program.placeY(index), program.placeDirection(index));
+                }
+            }
+            case CommandProgram.MOVE -> {
+                if (placed[id]) {
+                    int direction = directions[id];
+                    long nextX = xs[id] + (direction == 1 ? 1 : direction == 3 ? -1 : 0);
+                    long nextY = ys[id] + (direction == 0 ? 1 : direction == 2 ? -1 : 0);
+                    if (table.isInside(nextX, nextY)) {
+                        want(id, nextX, nextY, direction);
+                    }
+                }
+            }
+            case CommandProgram.LEFT -> {
+                if (placed[id]) {
+                    directions[id] = (directions[id] + 3) & 3;
+                }
+            }
+            case CommandProgram.RIGHT -> {
+                if (placed[id]) {
+                    directions[id] = (directions[id] + 1) & 3;
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void want(int id, long x, long y, int direction) {
+        wants[id] = true;
+        targetXs[id] = x;
+        targetYs[id] = y;
+        targetDirections[id] = direction;
+    }
+
+    private void resolve(int id) {
+        if (!wants[id]) {
+            return;
+        }
+        granted[id] = occupied.get(targetXs[id], targetYs[id]) == CellMap.NONE
+                && claims.get(targetXs[id], targetYs[id]) == id;
+    }
+
+    private enum Pass {
+        INTENT,
+        RESOLVE
+    }
+
+    private final class Partition extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final Pass pass;
+
+        private Partition(int from, int to, Pass pass) {
+            this.from = from;
+            this.to = to;
+            this.pass = pass;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARTITION_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Partition(from, middle, pass), new Partition(middle, to, pass));
+                return;
+            }
+            for (int id = from; id < to; id++) {
+                if (pass == Pass.INTENT) {
+                    takeCommand(id);
+                } else {
+                    resolve(id);
+                }
+            }
+        }
+    }
+}
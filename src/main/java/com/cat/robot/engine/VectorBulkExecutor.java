@@ -0,0 +1,86 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.model.Table;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Runs the program over one vector of robots at a time using the incubating Vector API.
+ * Each block of robots is loaded once, the whole program is applied to it in registers with
+ * masked moves and rotations, and it is stored back. Positions are long lanes and directions
+ * int lanes of half the width, so both hold the same robots. Requires
+ * {@code --add-modules jdk.incubator.vector}; see {@link BulkExecutor#create(boolean)}.
+ */
+public class VectorBulkExecutor implements BulkExecutor {
+
+    private static final VectorSpecies<Long> POSITIONS = LongVector.SPECIES_PREFERRED;
+    /**
+     * Null when the preferred long vector has a single lane (C2 off or {@code MaxVectorSize}
+     * below 16), since there is no 32-bit shape for the matching int lanes.
+     */
+    private static final VectorSpecies<Integer> DIRECTIONS = POSITIONS.length() >= 2
+            ? VectorSpecies.of(int.class, VectorShape.forBitSize(POSITIONS.vectorBitSize() / 2))
+            : null;
+
+    /**
+     * @return true if this JVM's preferred vectors hold at least two robots, so the executor
+     *         can be used.
+     */
+    public static boolean isSupported() {
+        return DIRECTIONS != null;
+    }
+
+    @Override
+    public void execute(Table table, long[] xs, long[] ys, int[] directions, boolean[] placed, int size, CommandProgram program) {
+        long width = table.width();
+        long height = table.height();
+        int bound = POSITIONS.loopBound(size);
+
+        for (int id = 0; id < bound; id += POSITIONS.length()) {
+            LongVector x = LongVector.fromArray(POSITIONS, xs, id);
+            LongVector y = LongVector.fromArray(POSITIONS, ys, id);
+            IntVector direction = IntVector.fromArray(DIRECTIONS, directions, id);
+            VectorMask<Long> isPlaced = VectorMask.fromArray(POSITIONS, placed, id);
+
+            for (int i = 0; i < program.length(); i++) {
+                switch (program.opcode(i)) {
+                    case CommandProgram.PLACE -> {
+                        if (table.isInside(program.placeX(i), program.placeY(i))) {
+                            VectorMask<Long> placing = isPlaced.not();
+                            x = x.blend(program.placeX(i), placing);
+                            y = y.blend(program.placeY(i), placing);
+                            direction = direction.blend(program.placeDirection(i), placing.cast(DIRECTIONS));
+                            isPlaced = isPlaced.or(placing);
+                        }
+                    }
+                    case CommandProgram.MOVE -> {
+                        LongVector nextX = x.add(1, direction.eq(1).cast(POSITIONS)).sub(1, direction.eq(3).cast(POSITIONS));
+                        LongVector nextY = y.add(1, direction.eq(0).cast(POSITIONS)).sub(1, direction.eq(2).cast(POSITIONS));
+                        VectorMask<Long> inside = isPlaced
+                                .and(nextX.compare(VectorOperators.GE, 0))
+                                .and(nextX.compare(VectorOperators.LT, width))
+                                .and(nextY.compare(VectorOperators.GE, 0))
+                                .and(nextY.compare(VectorOperators.LT, height));
+                        x = x.blend(nextX, inside);
+                        y = y.blend(nextY, inside);
+                    }
+                    case CommandProgram.LEFT -> direction = direction.blend(direction.add(3).and(3), isPlaced.cast(DIRECTIONS));
+                    case CommandProgram.RIGHT -> direction = direction.blend(direction.add(1).and(3), isPlaced.cast(DIRECTIONS));
+                    default -> {
+                    }
+                }
+            }
+
+            x.intoArray(xs, id);
+            y.intoArray(ys, id);
+            direction.intoArray(directions, id);
+            isPlaced.intoArray(placed, id);
+        }
+
+        ScalarBulkExecutor.executeRange(table, xs, ys, directions, placed, bound, size, program);
+    }
+}
@@ -0,0 +1,7 @@
+package com.cat.robot.exception;
+
+public class CommandIndexOutOfRangeException extends IllegalArgumentException {
+    public CommandIndexOutOfRangeException(String message) {
+        super(message);
+    }
+}
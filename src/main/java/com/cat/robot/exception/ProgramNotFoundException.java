@@ -0,0 +1,7 @@
+package com.cat.robot.exception;
+
+public class ProgramNotFoundException extends IllegalArgumentException {
+    public ProgramNotFoundException(String message) {
+        super(message);
+    }
+}
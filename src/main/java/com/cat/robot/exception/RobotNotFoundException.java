@@ -0,0 +1,7 @@
+package com.cat.robot.exception;
+
+public class RobotNotFoundException extends IllegalArgumentException {
+    public RobotNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.cat.robot.exception;
+
+public class SimulationRunningException extends IllegalStateException {
+    public SimulationRunningException(String message) {
+        super(message);
+    }
+}
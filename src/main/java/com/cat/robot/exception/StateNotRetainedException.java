@@ -0,0 +1,7 @@
+package com.cat.robot.exception;
+
+public class StateNotRetainedException extends IllegalArgumentException {
+    public StateNotRetainedException(String message) {
+        super(message);
+    }
+}
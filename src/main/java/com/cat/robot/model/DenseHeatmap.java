@@ -0,0 +1,64 @@
+package com.cat.robot.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Heatmap holding two counters for every cell of a small table, indexed row by row.
+ * Increments are a plain read and an opaque write, so they never allocate, lock or retry.
+ */
+public class DenseHeatmap implements Heatmap {
+
+    private final Table table;
+    private final AtomicLongArray visits;
+    private final AtomicLongArray rejections;
+
+    public DenseHeatmap(Table table) {
+        long area = table.area();
+        if (area < 0 || area > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Table too large for a dense heatmap");
+        }
+        this.table = table;
+        this.visits = new AtomicLongArray((int) area);
+        this.rejections = new AtomicLongArray((int) area);
+    }
+
+    @Override
+    public void recordVisit(long x, long y) {
+        increment(visits, cellOf(x, y));
+    }
+
+    @Override
+    public void recordRejection(long x, long y) {
+        increment(rejections, cellOf(x, y));
+    }
+
+    @Override
+    public byte[] report() {
+        int area = visits.length();
+        long[] xs = new long[area];
+        long[] ys = new long[area];
+        long[] visitCounts = new long[area];
+        long[] rejectionCounts = new long[area];
+        int cells = 0;
+        for (int cell = 0; cell < area; cell++) {
+            long visited = visits.getOpaque(cell);
+            long rejected = rejections.getOpaque(cell);
+            if (visited != 0 || rejected != 0) {
+                xs[cells] = cell % table.width();
+                ys[cells] = cell / table.width();
+                visitCounts[cells] = visited;
+                rejectionCounts[cells] = rejected;
+                cells++;
+            }
+        }
+        return Heatmap.writeReport(table, xs, ys, visitCounts, rejectionCounts, cells);
+    }
+
+    private int cellOf(long x, long y) {
+        return (int) (y * table.width() + x);
+    }
+
+    private static void increment(AtomicLongArray counters, int cell) {
+        counters.setOpaque(cell, counters.getPlain(cell) + 1);
+    }
+}
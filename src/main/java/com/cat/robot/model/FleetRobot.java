@@ -0,0 +1,3 @@
+package com.cat.robot.model;
+
+public record FleetRobot(int id, RobotState state) {}
@@ -0,0 +1,356 @@
+package com.cat.robot.model;
+
+import com.cat.robot.engine.BulkExecutor;
+import com.cat.robot.engine.CommandProgram;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for a fleet of robots sharing one table. Robot {@code id} is the
+ * index into parallel primitive arrays, so the whole fleet can be reported with a handful of
+ * bulk copies. Each robot costs 21 bytes of state plus 12 bytes in the {@link SpatialGrid}, and
+ * the grid adds 27 to 54 bytes per occupied bucket as it grows; no object is allocated per
+ * robot or bucket.
+ */
+public class FleetStore {
+
+    /**
+     * Size in bytes of the report header: robot count, table width and table height.
+     */
+    public static final int REPORT_HEADER_BYTES = 3 * Long.BYTES;
+
+    /**
+     * Index cell size that asks for the bucket edge to be chosen from the fleet's density.
+     */
+    public static final int AUTO_INDEX_CELL_SIZE = 0;
+
+    /**
+     * Smallest bucket edge length chosen automatically, in cells.
+     */
+    public static final int MIN_INDEX_CELL_SIZE = 8;
+
+    /**
+     * Number of robots an automatically sized bucket holds when the fleet is spread evenly.
+     */
+    private static final int ROBOTS_PER_BUCKET = 4;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Table table;
+    private final int size;
+    private final long[] xs;
+    private final long[] ys;
+    private final int[] directions;
+    private final boolean[] placed;
+    private final SpatialGrid index;
+
+    public FleetStore(Table table, int size) {
+        this(table, size, AUTO_INDEX_CELL_SIZE);
+    }
+
+    /**
+     * @param indexCellSize bucket edge length of the spatial index, in cells; 0 or less picks
+     *                      one with {@link #indexCellSizeFor(Table, int)}.
+     */
+    public FleetStore(Table table, int size, int indexCellSize) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Fleet size must not be negative");
+        }
+        this.table = table;
+        this.size = size;
+        this.xs = new long[size];
+        this.ys = new long[size];
+        this.directions = new int[size];
+        this.placed = new boolean[size];
+        this.index = new SpatialGrid(table, size, indexCellSize > 0 ? indexCellSize : indexCellSizeFor(table, size));
+    }
+
+    /**
+     * Picks a bucket edge so that a fleet spread evenly over the table fills each bucket with a
+     * few robots, keeping the index small on sparse fleets. Unbounded tables have no density to
+     * go by and get {@link #MIN_INDEX_CELL_SIZE}, as do dense fleets.
+     */
+    public static int indexCellSizeFor(Table table, int robots) {
+        long area = table.area();
+        if (robots <= 0 || area < 0 || table.width() == Table.UNBOUNDED || table.height() == Table.UNBOUNDED) {
+            return MIN_INDEX_CELL_SIZE;
+        }
+        double edge = Math.ceil(Math.sqrt((double) area * ROBOTS_PER_BUCKET / robots));
+        return (int) Math.clamp(edge, MIN_INDEX_CELL_SIZE, Integer.MAX_VALUE);
+    }
+
+    public Table table() {
+        return table;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return bytes held by the store's arrays and its spatial index, not counting array
+     *         headers.
+     */
+    public long footprintBytes() {
+        return (long) size * (2 * Long.BYTES + Integer.BYTES + 1) + index.footprintBytes();
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < size;
+    }
+
+    public boolean isPlaced(int id) {
+        return placed[id];
+    }
+
+    /**
+     * Places the robot if it is not already on the table and the position is inside the table.
+     *
+     * @return true if the robot was placed, otherwise false.
+     */
+    public boolean place(int id, long x, long y, Direction direction) {
+        if (placed[id] || !table.isInside(x, y)) {
+            return false;
+        }
+        xs[id] = x;
+        ys[id] = y;
+        directions[id] = direction.ordinal();
+        placed[id] = true;
+        index.update(id, x, y);
+        return true;
+    }
+
+    /**
+     * Moves the robot one cell forward if it is placed and the next cell is on the table.
+     *
+     * @return true if the robot moved, otherwise false.
+     */
+    public boolean move(int id) {
+        if (!placed[id]) {
+            return false;
+        }
+        long x = xs[id] + dx(directions[id]);
+        long y = ys[id] + dy(directions[id]);
+        if (!table.isInside(x, y)) {
+            return false;
+        }
+        xs[id] = x;
+        ys[id] = y;
+        index.update(id, x, y);
+        return true;
+    }
+
+    public boolean turnLeft(int id) {
+        if (!placed[id]) {
+            return false;
+        }
+        directions[id] = (directions[id] + 3) & 3;
+        return true;
+    }
+
+    public boolean turnRight(int id) {
+        if (!placed[id]) {
+            return false;
+        }
+        directions[id] = (directions[id] + 1) & 3;
+        return true;
+    }
+
+    public void reset(int id) {
+        placed[id] = false;
+        index.remove(id);
+    }
+
+    public void resetAll() {
+        Arrays.fill(placed, false);
+        index.clear();
+    }
+
+    /**
+     * Runs the program against every robot of the fleet, then moves the robots that changed
+     * bucket in the spatial index.
+     */
+    public void execute(CommandProgram program, BulkExecutor executor) {
+        executor.execute(table, xs, ys, directions, placed, size, program);
+        for (int id = 0; id < size; id++) {
+            if (placed[id]) {
+                index.update(id, xs[id], ys[id]);
+            } else {
+                index.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Runs the program against one robot.
+     */
+    public void execute(int id, CommandProgram program) {
+        for (int i = 0; i < program.length(); i++) {
+            switch (program.opcode(i)) {
+                case CommandProgram.PLACE -> place(id, program.placeX(i), program.placeY(i), DIRECTIONS[program.placeDirection(i)]);
+                case CommandProgram.MOVE  -> move(id);
+                case CommandProgram.LEFT  -> turnLeft(id);
+                case CommandProgram.RIGHT -> turnRight(id);
+                default                   -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * @return ids of the placed robots inside the region, in ascending order.
+     */
+    public int[] robotsIn(Region region) {
+        IntList ids = new IntList();
+        index.forEachCandidate(region.minX(), region.minY(), region.maxX(), region.maxY(), id -> {
+            if (region.contains(xs[id], ys[id])) {
+                ids.add(id);
+            }
+        });
+        return ids.sorted();
+    }
+
+    /**
+     * Finds the placed robot closest to the given cell by straight-line distance, preferring
+     * the lowest id on ties. Searches outwards one ring of index buckets at a time and stops
+     * once no unvisited bucket can hold anything closer; if the robots are so spread out that
+     * the rings have probed more buckets than are occupied, it checks every robot instead.
+     *
+     * @return id of the nearest robot, or -1 if no robot is placed.
+     */
+    public int nearest(long x, long y) {
+        Nearest best = new Nearest(x, y);
+        long cellX = Math.clamp(x, 0, table.width() - 1);
+        long cellY = Math.clamp(y, 0, table.height() - 1);
+        long probed = 0;
+
+        for (int ring = 0; ; ring++) {
+            long ringBuckets = index.forEachInRing(cellX, cellY, ring, best::consider);
+            SquaredDistance reach = SquaredDistance.of((long) ring * index.cellSize(), 0);
+            if (ringBuckets == 0 || (best.id >= 0 && best.distance.compareTo(reach) <= 0)) {
+                return best.id;
+            }
+
+            probed += ringBuckets;
+            if (probed > index.occupiedBuckets()) {
+                for (int id = 0; id < size; id++) {
+                    if (placed[id]) {
+                        best.consider(id);
+                    }
+                }
+                return best.id;
+            }
+        }
+    }
+
+    public RobotState getState(int id) {
+        if (!placed[id]) {
+            return new RobotState(null, null, false);
+        }
+        return new RobotState(new Position(xs[id], ys[id]), DIRECTIONS[directions[id]], true);
+    }
+
+    /**
+     * @return number of bytes a report of the given number of robots takes.
+     */
+    public static int reportSize(int robots) {
+        return REPORT_HEADER_BYTES + robots * (2 * Long.BYTES + Integer.BYTES + 1);
+    }
+
+    /**
+     * Writes the report header at the start of the buffer. A report is a little-endian columnar
+     * layout: a header of robot count, table width and table height as longs, then every x and
+     * every y as longs, every direction ordinal as an int, then one placed byte (0 or 1) per
+     * robot. Position and direction of unplaced robots are undefined.
+     */
+    public static void writeReportHeader(ByteBuffer buffer, int robots, Table table) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(0, robots)
+                .putLong(Long.BYTES, table.width())
+                .putLong(2 * Long.BYTES, table.height());
+    }
+
+    /**
+     * Writes this store's robots into their slots of each column of a report covering
+     * {@code robots} robots, treating this store's robot 0 as robot {@code firstId}. Only
+     * absolute writes are used, so stores covering different ids may fill one buffer at once.
+     */
+    public void writeReportColumns(ByteBuffer buffer, int firstId, int robots) {
+        int xStart = REPORT_HEADER_BYTES;
+        int yStart = xStart + robots * Long.BYTES;
+        int directionStart = yStart + robots * Long.BYTES;
+        int placedStart = directionStart + robots * Integer.BYTES;
+
+        writeColumn(buffer, xStart + firstId * Long.BYTES, xs);
+        writeColumn(buffer, yStart + firstId * Long.BYTES, ys);
+        writeColumn(buffer, directionStart + firstId * Integer.BYTES, directions);
+
+        ByteBuffer placedColumn = buffer.slice(placedStart + firstId, size);
+        for (int id = 0; id < size; id++) {
+            placedColumn.put(id, placed[id] ? (byte) 1 : (byte) 0);
+        }
+    }
+
+    private void writeColumn(ByteBuffer buffer, int start, long[] column) {
+        buffer.slice(start, size * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer()
+                .put(column, 0, size);
+    }
+
+    private void writeColumn(ByteBuffer buffer, int start, int[] column) {
+        buffer.slice(start, size * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer()
+                .put(column, 0, size);
+    }
+
+    static int dx(int direction) {
+        return direction == 1 ? 1 : direction == 3 ? -1 : 0;
+    }
+
+    static int dy(int direction) {
+        return direction == 0 ? 1 : direction == 2 ? -1 : 0;
+    }
+
+    private final class Nearest {
+        private final long x;
+        private final long y;
+        private SquaredDistance distance;
+        private int id = -1;
+
+        private Nearest(long x, long y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        private void consider(int candidate) {
+            SquaredDistance candidateDistance = SquaredDistance.between(xs[candidate], ys[candidate], x, y);
+            int order = id < 0 ? -1 : candidateDistance.compareTo(distance);
+            if (order < 0 || (order == 0 && candidate < id)) {
+                distance = candidateDistance;
+                id = candidate;
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] sorted() {
+            int[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
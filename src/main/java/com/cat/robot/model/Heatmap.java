@@ -0,0 +1,63 @@
+package com.cat.robot.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Per-cell counts of how often a robot entered each cell and how often a move was rejected
+ * while standing on it. Counters are written by a single thread at a time (the caller's write
+ * lock) without any atomic read-modify-write, and can be reported from any thread at any time
+ * without blocking the writer.
+ */
+public interface Heatmap {
+
+    /**
+     * Size in bytes of the report header: table width, table height and number of cells.
+     */
+    int REPORT_HEADER_BYTES = 3 * Long.BYTES;
+
+    /**
+     * Size in bytes of one cell in the report: x, y, visits and rejections.
+     */
+    int REPORT_CELL_BYTES = 4 * Long.BYTES;
+
+    void recordVisit(long x, long y);
+
+    void recordRejection(long x, long y);
+
+    /**
+     * Returns every cell with a non-zero count in a little-endian columnar layout: a header of
+     * table width, table height and cell count, then every x, every y, every visit count and
+     * every rejection count as longs. Cells are ordered by y, then x.
+     */
+    byte[] report();
+
+    /**
+     * Returns a dense heatmap when the table has no more than {@code denseMaxCells} cells,
+     * otherwise a sparse one that only holds the cells actually used.
+     */
+    static Heatmap create(Table table, long denseMaxCells) {
+        long area = table.area();
+        if (area >= 0 && area <= denseMaxCells) {
+            return new DenseHeatmap(table);
+        }
+        return new SparseHeatmap(table);
+    }
+
+    /**
+     * Writes a report of the given cells, which must already be in report order.
+     */
+    static byte[] writeReport(Table table, long[] xs, long[] ys, long[] visits, long[] rejections, int cells) {
+        ByteBuffer buffer = ByteBuffer.allocate(REPORT_HEADER_BYTES + cells * REPORT_CELL_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(table.width())
+                .putLong(table.height())
+                .putLong(cells);
+        buffer.asLongBuffer()
+                .put(xs, 0, cells)
+                .put(ys, 0, cells)
+                .put(visits, 0, cells)
+                .put(rejections, 0, cells);
+        return buffer.array();
+    }
+}
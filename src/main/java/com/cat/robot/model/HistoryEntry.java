@@ -0,0 +1,3 @@
+package com.cat.robot.model;
+
+public record HistoryEntry(long sequence, RobotState state) {}
@@ -1,6 +1,6 @@
 package com.cat.robot.model;
 
-public record Position(int x, int y) {
+public record Position(long x, long y) {
 
     public Position move(Direction direction) {
         return switch (direction) {
@@ -0,0 +1,3 @@
+package com.cat.robot.model;
+
+public record ProgramReport(long programId, int length, int simulatedCommands, RobotState finalState, int ignoredCommands) {}
@@ -0,0 +1,11 @@
+package com.cat.robot.model;
+
+/**
+ * Rectangle of table cells, bounds inclusive.
+ */
+public record Region(long minX, long minY, long maxX, long maxY) {
+
+    public boolean contains(long x, long y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+}
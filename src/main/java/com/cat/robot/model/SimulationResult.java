@@ -0,0 +1,3 @@
+package com.cat.robot.model;
+
+public record SimulationResult(RobotState finalState, int ignoredCommands) {}
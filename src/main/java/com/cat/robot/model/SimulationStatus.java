@@ -0,0 +1,9 @@
+package com.cat.robot.model;
+
+/**
+ * @param tick                 number of ticks run so far.
+ * @param running              whether ticks are being run in the background.
+ * @param targetTicksPerSecond requested background rate, 0 when running as fast as possible.
+ * @param ticksPerSecond       rate achieved by the current or last run.
+ */
+public record SimulationStatus(long tick, boolean running, double targetTicksPerSecond, double ticksPerSecond) {}
@@ -0,0 +1,180 @@
+package com.cat.robot.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Heatmap for large or unbounded tables that only holds the cells robots have actually used,
+ * in an open-addressing hash table of primitive arrays. Recording a cell that is already held
+ * never allocates; the arrays are only reallocated, doubling, when they become half full.
+ * A grown table is published through a volatile field, so reports read a consistent set of
+ * cells without locking. Only one thread may record at a time.
+ */
+public class SparseHeatmap implements Heatmap {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Table table;
+    private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+    private volatile int size;
+
+    public SparseHeatmap(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * @return number of cells held.
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void recordVisit(long x, long y) {
+        int slot = slotOf(x, y);
+        increment(slots.visits, slot);
+    }
+
+    @Override
+    public void recordRejection(long x, long y) {
+        int slot = slotOf(x, y);
+        increment(slots.rejections, slot);
+    }
+
+    @Override
+    public byte[] report() {
+        Slots current = slots;
+        int[] held = new int[current.capacity()];
+        int cells = 0;
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            if (current.used.getAcquire(slot) != 0) {
+                held[cells++] = slot;
+            }
+        }
+        sortByRowThenColumn(held, cells, current.xs, current.ys);
+
+        long[] xs = new long[cells];
+        long[] ys = new long[cells];
+        long[] visitCounts = new long[cells];
+        long[] rejectionCounts = new long[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int slot = held[cell];
+            xs[cell] = current.xs[slot];
+            ys[cell] = current.ys[slot];
+            visitCounts[cell] = current.visits.getOpaque(slot);
+            rejectionCounts[cell] = current.rejections.getOpaque(slot);
+        }
+        return Heatmap.writeReport(table, xs, ys, visitCounts, rejectionCounts, cells);
+    }
+
+    /**
+     * Finds the slot holding the cell, adding the cell if it is not held yet.
+     */
+    private int slotOf(long x, long y) {
+        Slots current = slots;
+        int mask = current.capacity() - 1;
+        int slot = hash(x, y) & mask;
+        while (current.used.getPlain(slot) != 0) {
+            if (current.xs[slot] == x && current.ys[slot] == y) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (2 * (size + 1) > current.capacity()) {
+            grow();
+            return slotOf(x, y);
+        }
+        current.xs[slot] = x;
+        current.ys[slot] = y;
+        current.used.setRelease(slot, 1);
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        Slots current = slots;
+        Slots grown = new Slots(current.capacity() * 2);
+        int mask = grown.capacity() - 1;
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            if (current.used.getPlain(slot) == 0) {
+                continue;
+            }
+            int target = hash(current.xs[slot], current.ys[slot]) & mask;
+            while (grown.used.getPlain(target) != 0) {
+                target = (target + 1) & mask;
+            }
+            grown.xs[target] = current.xs[slot];
+            grown.ys[target] = current.ys[slot];
+            grown.visits.setPlain(target, current.visits.getPlain(slot));
+            grown.rejections.setPlain(target, current.rejections.getPlain(slot));
+            grown.used.setPlain(target, 1);
+        }
+        slots = grown;
+    }
+
+    /**
+     * Heapsorts the first {@code count} slots into y then x order of their cells. Cells are
+     * arbitrary longs and cannot be packed into one sort key, so the slots are sorted directly
+     * instead of being boxed for a comparator.
+     */
+    private static void sortByRowThenColumn(int[] slots, int count, long[] xs, long[] ys) {
+        for (int root = count / 2 - 1; root >= 0; root--) {
+            siftDown(slots, root, count, xs, ys);
+        }
+        for (int end = count - 1; end > 0; end--) {
+            int largest = slots[0];
+            slots[0] = slots[end];
+            slots[end] = largest;
+            siftDown(slots, 0, end, xs, ys);
+        }
+    }
+
+    private static void siftDown(int[] slots, int root, int end, long[] xs, long[] ys) {
+        int value = slots[root];
+        for (int child = 2 * root + 1; child < end; child = 2 * root + 1) {
+            if (child + 1 < end && isBefore(slots[child], slots[child + 1], xs, ys)) {
+                child++;
+            }
+            if (!isBefore(value, slots[child], xs, ys)) {
+                break;
+            }
+            slots[root] = slots[child];
+            root = child;
+        }
+        slots[root] = value;
+    }
+
+    private static boolean isBefore(int slot, int other, long[] xs, long[] ys) {
+        return ys[slot] < ys[other] || (ys[slot] == ys[other] && xs[slot] < xs[other]);
+    }
+
+    private static int hash(long x, long y) {
+        long mixed = x * 0x9E3779B97F4A7C15L ^ y * 0xC2B2AE3D27D4EB4FL;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static void increment(AtomicLongArray counters, int slot) {
+        counters.setOpaque(slot, counters.getPlain(slot) + 1);
+    }
+
+    private static final class Slots {
+        private final long[] xs;
+        private final long[] ys;
+        private final AtomicLongArray visits;
+        private final AtomicLongArray rejections;
+        private final AtomicIntegerArray used;
+
+        private Slots(int capacity) {
+            this.xs = new long[capacity];
+            this.ys = new long[capacity];
+            this.visits = new AtomicLongArray(capacity);
+            this.rejections = new AtomicLongArray(capacity);
+            this.used = new AtomicIntegerArray(capacity);
+        }
+
+        private int capacity() {
+            return xs.length;
+        }
+    }
+}
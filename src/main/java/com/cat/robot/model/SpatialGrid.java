@@ -0,0 +1,309 @@
+package com.cat.robot.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid of square buckets over the table, holding the ids of the robots in each
+ * bucket. Robots are moved between buckets incrementally as they move, so region and nearest
+ * queries only visit the buckets around the area asked for instead of the whole fleet.
+ * Exact coordinates are owned by the caller; the grid only answers which robots might match.
+ * <p>
+ * Everything is kept in primitive arrays: each bucket is a doubly linked list threaded through
+ * per-robot {@code next}/{@code prev} arrays (12 bytes per robot with the bucket slot), and only
+ * occupied buckets have an entry in an open-addressing table from bucket to first robot (20
+ * bytes per table slot, grown by doubling once it is three quarters full). Memory therefore
+ * follows the fleet, not the table size, and a robot alone in its bucket costs no object.
+ */
+public class SpatialGrid {
+
+    private static final int NONE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private final long cellSize;
+    private final long columns;
+    private final long rows;
+
+    private final int[] next;
+    private final int[] prev;
+    private final int[] slotOf;
+
+    private long[] bucketColumns;
+    private long[] bucketRows;
+    private int[] heads;
+    private int occupied;
+
+    /**
+     * @param table     table the robots move on.
+     * @param robots    number of robot ids the grid can hold.
+     * @param cellSize  bucket edge length, in cells.
+     */
+    public SpatialGrid(Table table, int robots, int cellSize) {
+        if (cellSize < 1) {
+            throw new IllegalArgumentException("Cell size must be at least 1");
+        }
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, Math.ceilDiv(table.width(), cellSize));
+        this.rows = Math.max(1, Math.ceilDiv(table.height(), cellSize));
+        this.next = new int[robots];
+        this.prev = new int[robots];
+        this.slotOf = new int[robots];
+        Arrays.fill(slotOf, NONE);
+        allocate(MIN_CAPACITY);
+    }
+
+    public long cellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return number of buckets currently holding at least one robot.
+     */
+    public int occupiedBuckets() {
+        return occupied;
+    }
+
+    /**
+     * @return bytes held by the grid's arrays, not counting array headers.
+     */
+    public long footprintBytes() {
+        return 3L * Integer.BYTES * next.length
+                + (2L * Long.BYTES + Integer.BYTES) * heads.length;
+    }
+
+    /**
+     * Records that the robot is now at the given cell, moving it between buckets if needed.
+     */
+    public void update(int id, long x, long y) {
+        long column = x / cellSize;
+        long row = y / cellSize;
+        int current = slotOf[id];
+        if (current != NONE && bucketColumns[current] == column && bucketRows[current] == row) {
+            return;
+        }
+        remove(id);
+
+        int slot = findOrInsert(column, row);
+        int head = heads[slot];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        heads[slot] = id;
+        slotOf[id] = slot;
+    }
+
+    /**
+     * Removes the robot from the grid, e.g. when it leaves the table.
+     */
+    public void remove(int id) {
+        int slot = slotOf[id];
+        if (slot == NONE) {
+            return;
+        }
+
+        if (prev[id] != NONE) {
+            next[prev[id]] = next[id];
+        } else {
+            heads[slot] = next[id];
+        }
+        if (next[id] != NONE) {
+            prev[next[id]] = prev[id];
+        }
+        slotOf[id] = NONE;
+        if (heads[slot] == NONE) {
+            deleteSlot(slot);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(slotOf, NONE);
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Passes every robot in a bucket overlapping the inclusive rectangle to the consumer.
+     * Robots outside the rectangle but in the same buckets are included. When the rectangle
+     * covers more buckets than are occupied, the occupied buckets are scanned instead.
+     */
+    public void forEachCandidate(long minX, long minY, long maxX, long maxY, IntConsumer consumer) {
+        if (maxX < 0 || maxY < 0 || maxX < minX || maxY < minY) {
+            return;
+        }
+        long fromColumn = Math.max(0, minX) / cellSize;
+        long fromRow = Math.max(0, minY) / cellSize;
+        long toColumn = Math.min(columns - 1, maxX / cellSize);
+        long toRow = Math.min(rows - 1, maxY / cellSize);
+        if (fromColumn > toColumn || fromRow > toRow) {
+            return;
+        }
+
+        long width = toColumn - fromColumn + 1;
+        long height = toRow - fromRow + 1;
+        if (width > occupied / height) {
+            for (int slot = 0; slot < heads.length; slot++) {
+                if (heads[slot] != NONE
+                        && bucketColumns[slot] >= fromColumn && bucketColumns[slot] <= toColumn
+                        && bucketRows[slot] >= fromRow && bucketRows[slot] <= toRow) {
+                    forEachInSlot(slot, consumer);
+                }
+            }
+            return;
+        }
+
+        for (long row = fromRow; row <= toRow; row++) {
+            for (long column = fromColumn; column <= toColumn; column++) {
+                forEachInBucket(column, row, consumer);
+            }
+        }
+    }
+
+    /**
+     * Passes every robot in the buckets at Chebyshev distance {@code ring} (in buckets) from
+     * the bucket holding the given cell to the consumer.
+     *
+     * @return number of buckets of the ring that lie inside the grid; 0 once the ring lies
+     *         entirely outside it.
+     */
+    public long forEachInRing(long x, long y, int ring, IntConsumer consumer) {
+        long centreColumn = x / cellSize;
+        long centreRow = y / cellSize;
+        long firstColumn = centreColumn - ring;
+        long lastColumn = saturatedAdd(centreColumn, ring);
+        long firstRow = centreRow - ring;
+        long lastRow = saturatedAdd(centreRow, ring);
+
+        long fromColumn = Math.max(0, firstColumn);
+        long toColumn = Math.min(columns - 1, lastColumn);
+        long probed = 0;
+
+        for (long row = Math.max(0, firstRow); row <= Math.min(rows - 1, lastRow); row++) {
+            if (row == firstRow || row == lastRow) {
+                for (long column = fromColumn; column <= toColumn; column++) {
+                    forEachInBucket(column, row, consumer);
+                }
+                probed += toColumn - fromColumn + 1;
+                continue;
+            }
+            if (firstColumn >= 0) {
+                forEachInBucket(firstColumn, row, consumer);
+                probed++;
+            }
+            if (lastColumn < columns) {
+                forEachInBucket(lastColumn, row, consumer);
+                probed++;
+            }
+        }
+        return probed;
+    }
+
+    private void forEachInBucket(long column, long row, IntConsumer consumer) {
+        int mask = heads.length - 1;
+        for (int slot = hash(column, row) & mask; heads[slot] != NONE; slot = (slot + 1) & mask) {
+            if (bucketColumns[slot] == column && bucketRows[slot] == row) {
+                forEachInSlot(slot, consumer);
+                return;
+            }
+        }
+    }
+
+    private void forEachInSlot(int slot, IntConsumer consumer) {
+        for (int id = heads[slot]; id != NONE; id = next[id]) {
+            consumer.accept(id);
+        }
+    }
+
+    /**
+     * @return slot of the bucket, claiming an empty slot (with no robots yet) if it has none.
+     */
+    private int findOrInsert(long column, long row) {
+        int mask = heads.length - 1;
+        int slot = hash(column, row) & mask;
+        for (; heads[slot] != NONE; slot = (slot + 1) & mask) {
+            if (bucketColumns[slot] == column && bucketRows[slot] == row) {
+                return slot;
+            }
+        }
+
+        if ((occupied + 1) * 4L > heads.length * 3L) {
+            grow();
+            return findOrInsert(column, row);
+        }
+        bucketColumns[slot] = column;
+        bucketRows[slot] = row;
+        occupied++;
+        return slot;
+    }
+
+    /**
+     * Empties a slot whose bucket has no robots left, shifting later entries of the same probe
+     * run back so lookups never need tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int mask = heads.length - 1;
+        int hole = slot;
+        for (int i = (slot + 1) & mask; heads[i] != NONE; i = (i + 1) & mask) {
+            int home = hash(bucketColumns[i], bucketRows[i]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                moveSlot(i, hole);
+                hole = i;
+            }
+        }
+        heads[hole] = NONE;
+        occupied--;
+    }
+
+    private void moveSlot(int from, int to) {
+        bucketColumns[to] = bucketColumns[from];
+        bucketRows[to] = bucketRows[from];
+        heads[to] = heads[from];
+        for (int id = heads[to]; id != NONE; id = next[id]) {
+            slotOf[id] = to;
+        }
+    }
+
+    private void grow() {
+        long[] oldColumns = bucketColumns;
+        long[] oldRows = bucketRows;
+        int[] oldHeads = heads;
+        allocate(oldHeads.length * 2);
+
+        int mask = heads.length - 1;
+        for (int old = 0; old < oldHeads.length; old++) {
+            if (oldHeads[old] == NONE) {
+                continue;
+            }
+            int slot = hash(oldColumns[old], oldRows[old]) & mask;
+            while (heads[slot] != NONE) {
+                slot = (slot + 1) & mask;
+            }
+            bucketColumns[slot] = oldColumns[old];
+            bucketRows[slot] = oldRows[old];
+            heads[slot] = oldHeads[old];
+            for (int id = heads[slot]; id != NONE; id = next[id]) {
+                slotOf[id] = slot;
+            }
+            occupied++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        bucketColumns = new long[capacity];
+        bucketRows = new long[capacity];
+        heads = new int[capacity];
+        Arrays.fill(heads, NONE);
+        occupied = 0;
+    }
+
+    private static int hash(long column, long row) {
+        long h = column * 0x9E3779B97F4A7C15L + row;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long saturatedAdd(long value, int ring) {
+        return value > Long.MAX_VALUE - ring ? Long.MAX_VALUE : value + ring;
+    }
+}
@@ -0,0 +1,41 @@
+package com.cat.robot.model;
+
+/**
+ * Exact squared straight-line distance between two cells as an unsigned 128-bit value, since
+ * the square of a 64-bit coordinate difference does not fit in a long.
+ */
+public record SquaredDistance(long high, long low) implements Comparable<SquaredDistance> {
+
+    public static SquaredDistance between(long x1, long y1, long x2, long y2) {
+        return of(difference(x1, x2), difference(y1, y2));
+    }
+
+    /**
+     * @param dx non-negative distance along x.
+     * @param dy non-negative distance along y.
+     */
+    public static SquaredDistance of(long dx, long dy) {
+        long xLow = dx * dx;
+        long yLow = dy * dy;
+        long low = xLow + yLow;
+        long carry = Long.compareUnsigned(low, xLow) < 0 ? 1 : 0;
+        return new SquaredDistance(Math.multiplyHigh(dx, dx) + Math.multiplyHigh(dy, dy) + carry, low);
+    }
+
+    @Override
+    public int compareTo(SquaredDistance other) {
+        int byHigh = Long.compare(high, other.high);
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(low, other.low);
+    }
+
+    /**
+     * @return |a - b|, saturating at {@link Long#MAX_VALUE}.
+     */
+    private static long difference(long a, long b) {
+        long result = a - b;
+        if (((a ^ b) & (a ^ result)) < 0) {
+            return Long.MAX_VALUE;
+        }
+        return result == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(result);
+    }
+}
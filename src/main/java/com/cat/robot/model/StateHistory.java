@@ -0,0 +1,107 @@
+package com.cat.robot.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of the most recent robot states. Every command handled by the
+ * service is given a sequence number and the resulting state is packed into primitive
+ * arrays, so recording never allocates and memory is {@code capacity * 17} bytes per robot.
+ */
+public class StateHistory {
+
+    private static final byte NOT_PLACED = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int capacity;
+    private final long[] xs;
+    private final long[] ys;
+    private final byte[] directions;
+
+    private long nextSequence = 0;
+
+    public StateHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.xs = new long[capacity];
+        this.ys = new long[capacity];
+        this.directions = new byte[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Records the current state of the robot under the next sequence number.
+     *
+     * @return the sequence number given to the recorded state.
+     */
+    public long record(Robot robot) {
+        long sequence = nextSequence++;
+        int slot = (int) (sequence % capacity);
+
+        if (robot.isPlaced()) {
+            xs[slot] = robot.getPosition().x();
+            ys[slot] = robot.getPosition().y();
+            directions[slot] = (byte) robot.getDirection().ordinal();
+        } else {
+            directions[slot] = NOT_PLACED;
+        }
+        return sequence;
+    }
+
+    /**
+     * @return the sequence number of the most recent state, or -1 if nothing has been recorded.
+     */
+    public long latestSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * @return the oldest sequence number still held in the buffer.
+     */
+    public long oldestSequence() {
+        return Math.max(0, nextSequence - capacity);
+    }
+
+    public boolean isRetained(long sequence) {
+        return sequence >= oldestSequence() && sequence < nextSequence;
+    }
+
+    /**
+     * Returns the state recorded under the given sequence number, or null if it has been
+     * overwritten or not yet recorded.
+     */
+    public HistoryEntry stateAt(long sequence) {
+        if (!isRetained(sequence)) {
+            return null;
+        }
+        return unpack(sequence);
+    }
+
+    /**
+     * Returns up to {@code limit} of the most recent states, oldest first.
+     */
+    public List<HistoryEntry> recent(int limit) {
+        long from = Math.max(oldestSequence(), nextSequence - Math.max(0, limit));
+        List<HistoryEntry> entries = new ArrayList<>((int) (nextSequence - from));
+        for (long sequence = from; sequence < nextSequence; sequence++) {
+            entries.add(unpack(sequence));
+        }
+        return entries;
+    }
+
+    private HistoryEntry unpack(long sequence) {
+        int slot = (int) (sequence % capacity);
+        byte direction = directions[slot];
+
+        if (direction == NOT_PLACED) {
+            return new HistoryEntry(sequence, new RobotState(null, null, false));
+        }
+        Position position = new Position(xs[slot], ys[slot]);
+        return new HistoryEntry(sequence, new RobotState(position, DIRECTIONS[direction], true));
+    }
+}
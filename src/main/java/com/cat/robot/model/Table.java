@@ -1,11 +1,27 @@
 package com.cat.robot.model;
 
-public record Table(int width, int height) {
+/**
+ * Table of {@code width} by {@code height} cells starting at (0, 0). Either dimension may be
+ * {@link #UNBOUNDED}, which allows every non-negative coordinate; the last long value is never
+ * a legal cell, so moving off the far edge can't overflow. Nothing is stored per cell.
+ */
+public record Table(long width, long height) {
+
+    public static final long UNBOUNDED = Long.MAX_VALUE;
 
     public boolean isInside(Position position) {
-        int x = position.x();
-        int y = position.y();
+        return isInside(position.x(), position.y());
+    }
 
+    public boolean isInside(long x, long y) {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
+
+    /**
+     * @return number of cells on the table, or -1 if it does not fit in a long.
+     */
+    public long area() {
+        long area = width * height;
+        return Math.multiplyHigh(width, height) != 0 || area < 0 ? -1 : area;
+    }
 }
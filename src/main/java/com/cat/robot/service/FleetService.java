@@ -0,0 +1,81 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.FleetRobot;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.Region;
+import com.cat.robot.model.RobotState;
+
+import java.util.List;
+
+public interface FleetService {
+
+    /**
+     * @return number of robots in the fleet.
+     */
+    int size();
+
+    /**
+     * Executes the passed list of commands against one robot of the fleet, ignoring any
+     * that can't be executed, with the same rules as {@link RobotService#executeCommands(List)}.
+     *
+     * @param robotId  index of the robot in the fleet.
+     * @param commands list of commands in the CommandDTO format.
+     * @return final state of the robot.
+     * @throws com.cat.robot.exception.RobotNotFoundException if there is no robot with that id.
+     */
+    RobotState executeCommands(int robotId, List<CommandDTO> commands);
+
+    /**
+     * Executes the passed list of commands against every robot of the fleet, as if
+     * {@link #executeCommands(int, List)} had been called for each robot in turn.
+     *
+     * @param commands list of commands in the CommandDTO format.
+     */
+    void executeBulk(List<CommandDTO> commands);
+
+    /**
+     * Returns a report of one robot's current state.
+     *
+     * @param robotId index of the robot in the fleet.
+     * @throws com.cat.robot.exception.RobotNotFoundException if there is no robot with that id.
+     */
+    RobotState getReport(int robotId);
+
+    /**
+     * Returns the placed robots inside the region, by ascending id.
+     *
+     * @param region rectangle of cells, bounds inclusive.
+     */
+    List<FleetRobot> getRobotsIn(Region region);
+
+    /**
+     * Returns the placed robot closest to the given position, the lowest id winning ties.
+     *
+     * @param position the position to search from; may be off the table.
+     * @throws com.cat.robot.exception.RobotNotFoundException if no fleet robot is placed.
+     */
+    FleetRobot getNearest(Position position);
+
+    /**
+     * Executes the passed list of commands against every robot that is inside the region when
+     * the call is made, as {@link #executeCommands(int, List)} would for each of them.
+     *
+     * @param region   rectangle of cells, bounds inclusive.
+     * @param commands list of commands in the CommandDTO format.
+     * @return final state of the robots that were in the region, by ascending id.
+     */
+    List<FleetRobot> executeInRegion(Region region, List<CommandDTO> commands);
+
+    /**
+     * Returns the state of the whole fleet in the compact columnar layout described by
+     * {@link com.cat.robot.model.FleetStore#writeReportHeader(java.nio.ByteBuffer, int,
+     * com.cat.robot.model.Table)}.
+     */
+    byte[] getFleetReport();
+
+    /**
+     * Removes every robot of the fleet from the table.
+     */
+    void reset();
+}
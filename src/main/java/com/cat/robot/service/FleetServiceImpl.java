@@ -0,0 +1,234 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.engine.BulkExecutor;
+import com.cat.robot.engine.CommandProgram;
+import com.cat.robot.engine.FleetShards;
+import com.cat.robot.exception.RobotNotFoundException;
+import com.cat.robot.model.FleetRobot;
+import com.cat.robot.model.FleetStore;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.Region;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SquaredDistance;
+import com.cat.robot.model.Table;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class FleetServiceImpl implements FleetService, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetServiceImpl.class);
+
+    private final Table table;
+    private final FleetShards shards;
+    private final BulkExecutor bulkExecutor;
+
+    public FleetServiceImpl(long tableWidth, long tableHeight, int fleetSize) {
+        this(tableWidth, tableHeight, fleetSize, true, FleetStore.AUTO_INDEX_CELL_SIZE, 1);
+    }
+
+    @Autowired
+    public FleetServiceImpl(@Value("${robot.table.default.width}") long tableWidth,
+                            @Value("${robot.table.default.height}") long tableHeight,
+                            @Value("${robot.fleet.size:1000}") int fleetSize,
+                            @Value("${robot.fleet.vectorized:true}") boolean vectorized,
+                            @Value("${robot.fleet.index.cell-size:0}") int indexCellSize,
+                            @Value("${robot.fleet.shards:0}") int shardCount) {
+        this.table = new Table(tableWidth, tableHeight);
+        this.shards = new FleetShards(table, fleetSize, indexCellSize, shardCount);
+        this.bulkExecutor = BulkExecutor.create(vectorized);
+        log.info("Fleet of {} robots in {} shards using {}", fleetSize, shards.shardCount(),
+                bulkExecutor.getClass().getSimpleName());
+    }
+
+    @Override
+    public int size() {
+        return shards.size();
+    }
+
+    @Override
+    public RobotState executeCommands(int robotId, List<CommandDTO> commands) {
+        checkRobotExists(robotId);
+
+        if (commands == null) {
+            log.warn("Cannot call executeCommands for robot {} with null", robotId);
+            return getReport(robotId);
+        }
+
+        return shards.submit(robotId, (store, localId) -> {
+            applyCommands(store, localId, robotId, commands);
+            return store.getState(localId);
+        }).join();
+    }
+
+    /**
+     * Runs on the thread of the shard that owns the robot.
+     */
+    private void applyCommands(FleetStore store, int localId, int robotId, List<CommandDTO> commands) {
+        for (CommandDTO command : commands) {
+            if (command == null || command.type() == null) {
+                continue;
+            }
+
+            String type = command.type().trim().toUpperCase();
+            boolean applied = switch (type) {
+                case "PLACE" -> handlePlaceCommand(store, localId, command);
+                case "MOVE"  -> store.move(localId);
+                case "LEFT"  -> store.turnLeft(localId);
+                case "RIGHT" -> store.turnRight(localId);
+                default      -> {
+                    log.warn("Unknown command type '{}' ignored", command.type());
+                    yield false;
+                }
+            };
+
+            if (!applied) {
+                log.debug("{} command ignored for robot {}", type, robotId);
+            }
+        }
+    }
+
+    private boolean handlePlaceCommand(FleetStore store, int localId, CommandDTO command) {
+        if (command.x() == null || command.y() == null || command.direction() == null) {
+            log.warn("PLACE command missing required fields: {}", command);
+            return false;
+        }
+
+        return store.place(localId, command.x(), command.y(), command.direction());
+    }
+
+    @Override
+    public void executeBulk(List<CommandDTO> commands) {
+        if (commands == null) {
+            log.warn("Cannot call executeBulk with null");
+            return;
+        }
+
+        CommandProgram program = CommandProgram.compile(commands);
+        shards.broadcast((store, firstId) -> {
+            store.execute(program, bulkExecutor);
+            return null;
+        });
+        log.info("Executed {} commands across {} fleet robots", commands.size(), shards.size());
+    }
+
+    @Override
+    public RobotState getReport(int robotId) {
+        checkRobotExists(robotId);
+        return shards.submit(robotId, FleetStore::getState).join();
+    }
+
+    @Override
+    public List<FleetRobot> getRobotsIn(Region region) {
+        return concat(shards.broadcast((store, firstId) -> toFleetRobots(store, firstId, store.robotsIn(region))));
+    }
+
+    @Override
+    public FleetRobot getNearest(Position position) {
+        List<FleetRobot> candidates = shards.broadcast((store, firstId) -> {
+            int localId = store.nearest(position.x(), position.y());
+            return localId < 0 ? null : new FleetRobot(firstId + localId, store.getState(localId));
+        });
+
+        FleetRobot nearest = null;
+        SquaredDistance nearestDistance = null;
+        for (FleetRobot candidate : candidates) {
+            if (candidate == null) {
+                continue;
+            }
+            Position candidatePosition = candidate.state().position();
+            SquaredDistance distance = SquaredDistance.between(candidatePosition.x(), candidatePosition.y(),
+                    position.x(), position.y());
+            if (nearest == null || distance.compareTo(nearestDistance) < 0) {
+                nearest = candidate;
+                nearestDistance = distance;
+            }
+        }
+
+        if (nearest == null) {
+            log.warn("Nearest robot to {} requested but no fleet robot is placed", position);
+            throw new RobotNotFoundException("No fleet robot is on the table");
+        }
+        return nearest;
+    }
+
+    @Override
+    public List<FleetRobot> executeInRegion(Region region, List<CommandDTO> commands) {
+        if (commands == null) {
+            log.warn("Cannot call executeInRegion with null");
+            return getRobotsIn(region);
+        }
+
+        CommandProgram program = CommandProgram.compile(commands);
+        List<FleetRobot> robots = concat(shards.broadcast((store, firstId) -> {
+            int[] localIds = store.robotsIn(region);
+            for (int localId : localIds) {
+                store.execute(localId, program);
+            }
+            return toFleetRobots(store, firstId, localIds);
+        }));
+        log.info("Executed {} commands on {} fleet robots in {}", commands.size(), robots.size(), region);
+        return robots;
+    }
+
+    /**
+     * Runs on the thread of the shard that owns the store.
+     */
+    private static List<FleetRobot> toFleetRobots(FleetStore store, int firstId, int[] localIds) {
+        List<FleetRobot> robots = new ArrayList<>(localIds.length);
+        for (int localId : localIds) {
+            robots.add(new FleetRobot(firstId + localId, store.getState(localId)));
+        }
+        return robots;
+    }
+
+    @Override
+    public byte[] getFleetReport() {
+        ByteBuffer buffer = ByteBuffer.allocate(FleetStore.reportSize(shards.size()));
+        FleetStore.writeReportHeader(buffer, shards.size(), table);
+        shards.broadcast((store, firstId) -> {
+            store.writeReportColumns(buffer, firstId, shards.size());
+            return null;
+        });
+        return buffer.array();
+    }
+
+    @Override
+    public void reset() {
+        shards.broadcast((store, firstId) -> {
+            store.resetAll();
+            return null;
+        });
+        log.info("All {} fleet robots have been reset and removed from the table", shards.size());
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        shards.close();
+    }
+
+    private void checkRobotExists(int robotId) {
+        if (robotId < 0 || robotId >= shards.size()) {
+            log.warn("Robot {} requested but fleet holds robots 0..{}", robotId, shards.size() - 1);
+            throw new RobotNotFoundException("No robot with id " + robotId);
+        }
+    }
+
+    private static <T> List<T> concat(List<List<T>> lists) {
+        List<T> all = new ArrayList<>();
+        for (List<T> list : lists) {
+            all.addAll(list);
+        }
+        return all;
+    }
+}
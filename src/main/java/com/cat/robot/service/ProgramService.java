@@ -0,0 +1,45 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.ProgramReport;
+
+import java.util.List;
+
+public interface ProgramService {
+
+    /**
+     * Stores a program and simulates it from the robot's current state, without moving the
+     * robot. The simulation keeps checkpoints so later edits only re-run what they change.
+     *
+     * @param commands list of commands in the CommandDTO format.
+     * @return id, final state and ignored command count of the program.
+     */
+    ProgramReport store(List<CommandDTO> commands);
+
+    /**
+     * Returns the result of a stored program.
+     *
+     * @throws com.cat.robot.exception.ProgramNotFoundException if there is no such program.
+     */
+    ProgramReport get(long programId);
+
+    /**
+     * Replaces one command of a stored program and re-simulates it from the nearest checkpoint
+     * before that command, stopping as soon as the state matches the previous run again.
+     *
+     * @param programId id of the stored program.
+     * @param index     index of the command to replace.
+     * @param command   the new command.
+     * @return updated result, with the number of commands that had to be simulated.
+     * @throws com.cat.robot.exception.ProgramNotFoundException if there is no such program.
+     * @throws com.cat.robot.exception.CommandIndexOutOfRangeException if the index is outside the program.
+     */
+    ProgramReport replaceCommand(long programId, int index, CommandDTO command);
+
+    /**
+     * Forgets a stored program.
+     *
+     * @throws com.cat.robot.exception.ProgramNotFoundException if there is no such program.
+     */
+    void delete(long programId);
+}
@@ -0,0 +1,113 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.engine.CheckpointedProgram;
+import com.cat.robot.engine.CommandProgram;
+import com.cat.robot.exception.CommandIndexOutOfRangeException;
+import com.cat.robot.exception.ProgramNotFoundException;
+import com.cat.robot.model.ProgramReport;
+import com.cat.robot.model.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+@Service
+public class ProgramServiceImpl implements ProgramService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgramServiceImpl.class);
+
+    private final RobotService robotService;
+    private final Table table;
+    private final int checkpointInterval;
+    private final Map<Long, StoredProgram> programs = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public ProgramServiceImpl(RobotService robotService,
+                              @Value("${robot.table.default.width}") long tableWidth,
+                              @Value("${robot.table.default.height}") long tableHeight,
+                              @Value("${robot.program.checkpoint-interval:1024}") int checkpointInterval) {
+        this.robotService = robotService;
+        this.table = new Table(tableWidth, tableHeight);
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    @Override
+    public ProgramReport store(List<CommandDTO> commands) {
+        CommandProgram compiled = CommandProgram.compile(commands);
+        CheckpointedProgram program = new CheckpointedProgram(table, robotService.getReport(), compiled, checkpointInterval);
+
+        long id = nextId.getAndIncrement();
+        programs.put(id, new StoredProgram(program, new ReentrantLock()));
+        log.info("Stored program {} of {} commands", id, program.length());
+        return toReport(id, program);
+    }
+
+    @Override
+    public ProgramReport get(long programId) {
+        return update(programId, program -> {
+        });
+    }
+
+    @Override
+    public ProgramReport replaceCommand(long programId, int index, CommandDTO command) {
+        return update(programId, program -> {
+            if (index < 0 || index >= program.length()) {
+                log.warn("Edit of program {} at index {} outside 0..{}", programId, index, program.length() - 1);
+                throw new CommandIndexOutOfRangeException("Command index " + index + " outside program of length " + program.length());
+            }
+            program.replace(index, command);
+            log.info("Program {} command {} replaced, re-simulated {} of {} commands",
+                    programId, index, program.lastSimulatedCommands(), program.length());
+        });
+    }
+
+    /**
+     * Runs the action against the stored program and reports on it, holding the program's own
+     * lock so edits and reads of the same program never interleave. A lock rather than the
+     * map's compute methods, which hold a monitor, so re-simulation and logging never pin a
+     * virtual thread's carrier.
+     */
+    private ProgramReport update(long programId, Consumer<CheckpointedProgram> action) {
+        StoredProgram stored = programs.get(programId);
+        if (stored == null) {
+            throw notFound(programId);
+        }
+
+        stored.lock().lock();
+        try {
+            action.accept(stored.program());
+            return toReport(programId, stored.program());
+        } finally {
+            stored.lock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(long programId) {
+        if (programs.remove(programId) == null) {
+            throw notFound(programId);
+        }
+        log.info("Program {} deleted", programId);
+    }
+
+    private ProgramNotFoundException notFound(long programId) {
+        log.warn("Program {} requested but not stored", programId);
+        return new ProgramNotFoundException("No program with id " + programId);
+    }
+
+    private static ProgramReport toReport(long id, CheckpointedProgram program) {
+        return new ProgramReport(id, program.length(), program.lastSimulatedCommands(),
+                program.finalState(), program.ignoredCommands());
+    }
+
+    private record StoredProgram(CheckpointedProgram program, ReentrantLock lock) {
+    }
+}
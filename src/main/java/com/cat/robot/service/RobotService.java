@@ -2,8 +2,10 @@ package com.cat.robot.service;
 
 import com.cat.robot.dto.CommandDTO;
 import com.cat.robot.model.Direction;
+import com.cat.robot.model.HistoryEntry;
 import com.cat.robot.model.Position;
 import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationResult;
 
 import java.util.List;
 
@@ -55,6 +57,43 @@ public interface RobotService {
      */
     RobotState executeCommands(List<CommandDTO> commands);
 
+    /**
+     * Works out what the passed list of commands would do from the robot's current state,
+     * without changing the robot or waiting for commands being applied to it.
+     *
+     * @param commands list of commands in the CommandDTO format.
+     * @return projected final state and the number of commands that would be ignored.
+     */
+    SimulationResult dryRun(List<CommandDTO> commands);
+
+    /**
+     * Returns the state the robot was in after the command with the given sequence number.
+     * Every command handled, including ignored ones, is given the next sequence number;
+     * sequence 0 is the initial unplaced state.
+     *
+     * @param sequence the sequence number of the command.
+     * @return the recorded state.
+     * @throws com.cat.robot.exception.StateNotRetainedException if the state is no longer held.
+     */
+    HistoryEntry getStateAt(long sequence);
+
+    /**
+     * Returns the most recent recorded states, oldest first.
+     *
+     * @param limit maximum number of states to return.
+     * @return list of recorded states.
+     */
+    List<HistoryEntry> getRecentHistory(int limit);
+
+    /**
+     * Returns how often the robot has entered each cell, by placement or move, and how often
+     * a move was rejected while it stood on each cell, as described by
+     * {@link com.cat.robot.model.Heatmap#report()}. Never waits for commands being applied.
+     *
+     * @return the heatmap in binary form.
+     */
+    byte[] getHeatmap();
+
     /**
      * Removes the robot from the table.
      */
@@ -1,31 +1,79 @@
 package com.cat.robot.service;
 
 import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.engine.CommandProgram;
+import com.cat.robot.engine.RobotSimulator;
 import com.cat.robot.exception.RobotNotAdjustedException;
 import com.cat.robot.exception.RobotNotPlacedException;
+import com.cat.robot.exception.StateNotRetainedException;
 import com.cat.robot.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class RobotServiceImpl implements RobotService {
 
     private static final Logger log = LoggerFactory.getLogger(RobotServiceImpl.class);
 
+    private static final int DEFAULT_HISTORY_CAPACITY = 1024;
+    private static final long DEFAULT_HEATMAP_DENSE_MAX_CELLS = 65536;
+
     private final Table table;
     private final Robot robot = new Robot();
+    private final StateHistory history;
+    private final Heatmap heatmap;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Guards the history alone and is only held for one record or read, so history queries
+     * never wait behind a whole batch. Taken inside the write lock, never the other way round.
+     */
+    private final ReentrantLock historyLock = new ReentrantLock();
+
+    /**
+     * Immutable copy of the robot's state, replaced after every command so readers and
+     * dry-runs never need the write lock or see a half-applied command.
+     */
+    private volatile RobotState snapshot = new RobotState(null, null, false);
 
-    public RobotServiceImpl(@Value("${robot.table.default.width}") int tableWidth,
-                            @Value("${robot.table.default.height}") int tableHeight) {
+    public RobotServiceImpl(long tableWidth, long tableHeight) {
+        this(tableWidth, tableHeight, DEFAULT_HISTORY_CAPACITY);
+    }
+
+    public RobotServiceImpl(long tableWidth, long tableHeight, int historyCapacity) {
+        this(tableWidth, tableHeight, historyCapacity, DEFAULT_HEATMAP_DENSE_MAX_CELLS);
+    }
+
+    @Autowired
+    public RobotServiceImpl(@Value("${robot.table.default.width}") long tableWidth,
+                            @Value("${robot.table.default.height}") long tableHeight,
+                            @Value("${robot.history.capacity:1024}") int historyCapacity,
+                            @Value("${robot.heatmap.dense-max-cells:65536}") long heatmapDenseMaxCells) {
         this.table = new Table(tableWidth, tableHeight);
+        this.history = new StateHistory(historyCapacity);
+        this.heatmap = Heatmap.create(table, heatmapDenseMaxCells);
+        recordState();
     }
 
     @Override
     public boolean place(Position position, Direction direction) {
+        writeLock.lock();
+        try {
+            return doPlace(position, direction);
+        } finally {
+            recordState();
+            writeLock.unlock();
+        }
+    }
+
+    private boolean doPlace(Position position, Direction direction) {
         if (robot.isPlaced()) {
             log.warn("Robot placement FAILED, robot already on table at {} facing {}", robot.getPosition(), robot.getDirection());
             throw new RobotNotPlacedException("Robot already on table");
@@ -38,6 +86,7 @@ public class RobotServiceImpl implements RobotService {
         }
 
         robot.place(position, direction);
+        heatmap.recordVisit(position.x(), position.y());
         log.info("Robot successfully placed at {} facing {}", position, direction);
         return true;
     }
@@ -54,6 +103,16 @@ public class RobotServiceImpl implements RobotService {
 
     @Override
     public boolean move() {
+        writeLock.lock();
+        try {
+            return doMove();
+        } finally {
+            recordState();
+            writeLock.unlock();
+        }
+    }
+
+    private boolean doMove() {
         if (!robot.isPlaced()) {
             log.warn("Robot move ignored as no robot placed");
             throw new RobotNotAdjustedException("Robot move ignored as no robot placed");
@@ -61,18 +120,30 @@ public class RobotServiceImpl implements RobotService {
 
         Position possibleFuturePosition = robot.getPosition().move(robot.getDirection());
         if (isNotLegalPosition(possibleFuturePosition)) {
+            heatmap.recordRejection(robot.getPosition().x(), robot.getPosition().y());
             log.warn("Robot movement FAILED, {} — outside table bounds. Current bounds = X=0..{}, Y=0..{}",
                     possibleFuturePosition, table.width() - 1, table.height() - 1);
             throw new RobotNotAdjustedException("Move ignored as intended location outside table bounds");
         }
 
         robot.updatePosition(possibleFuturePosition);
+        heatmap.recordVisit(possibleFuturePosition.x(), possibleFuturePosition.y());
         log.info("Robot moved to {}", robot.getPosition());
         return true;
     }
 
     @Override
     public boolean turnLeft() {
+        writeLock.lock();
+        try {
+            return doTurnLeft();
+        } finally {
+            recordState();
+            writeLock.unlock();
+        }
+    }
+
+    private boolean doTurnLeft() {
         if (!robot.isPlaced()) {
             log.warn("Robot left turn ignored as no robot placed");
             throw new RobotNotAdjustedException("Robot left turn ignored as no robot placed");
@@ -85,6 +156,16 @@ public class RobotServiceImpl implements RobotService {
 
     @Override
     public boolean turnRight() {
+        writeLock.lock();
+        try {
+            return doTurnRight();
+        } finally {
+            recordState();
+            writeLock.unlock();
+        }
+    }
+
+    private boolean doTurnRight() {
         if (!robot.isPlaced()) {
             log.warn("Robot right turn ignored as no robot placed");
             throw new RobotNotAdjustedException("Robot right turn ignored as no robot placed");
@@ -97,7 +178,27 @@ public class RobotServiceImpl implements RobotService {
 
     @Override
     public RobotState getReport() {
-        return new RobotState(robot.getPosition(), robot.getDirection(), robot.isPlaced());
+        return snapshot;
+    }
+
+    /**
+     * Records the robot's state in the history and publishes a new snapshot if it changed.
+     * Must be called with the write lock held.
+     */
+    private void recordState() {
+        historyLock.lock();
+        try {
+            history.record(robot);
+        } finally {
+            historyLock.unlock();
+        }
+
+        RobotState current = snapshot;
+        if (current.isPlaced() != robot.isPlaced()
+                || current.direction() != robot.getDirection()
+                || !Objects.equals(current.position(), robot.getPosition())) {
+            snapshot = new RobotState(robot.getPosition(), robot.getDirection(), robot.isPlaced());
+        }
     }
 
     @Override
@@ -107,8 +208,22 @@ public class RobotServiceImpl implements RobotService {
             return getReport();
         }
 
+        // read the snapshot before unlocking so a concurrent batch can't replace it first
+        RobotState result;
+        writeLock.lock();
+        try {
+            executeLocked(commands);
+            result = snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+        return result;
+    }
+
+    private void executeLocked(List<CommandDTO> commands) {
         for (CommandDTO command : commands) {
             if (command == null || command.type() == null) {
+                recordState();
                 continue;
             }
 
@@ -120,28 +235,82 @@ public class RobotServiceImpl implements RobotService {
                     case "MOVE"  -> move();
                     case "LEFT"  -> turnLeft();
                     case "RIGHT" -> turnRight();
-                    default      -> log.warn("Unknown command type '{}' ignored", command.type());
+                    default      -> {
+                        log.warn("Unknown command type '{}' ignored", command.type());
+                        recordState();
+                    }
                 }
             } catch (RobotNotPlacedException | RobotNotAdjustedException ex) {
                 log.debug("{} command ignored during batch execution", type);
             }
         }
+    }
+
+    @Override
+    public SimulationResult dryRun(List<CommandDTO> commands) {
+        RobotSimulator simulator = new RobotSimulator(table, snapshot);
+        CommandProgram program = CommandProgram.compile(commands);
+        int ignored = simulator.run(program, 0, program.length());
 
-        return getReport();
+        log.info("Dry-run of {} commands finished with {} ignored", program.length(), ignored);
+        return new SimulationResult(simulator.state(), ignored);
     }
 
     private void handlePlaceCommand(CommandDTO command) {
         if (command.x() == null || command.y() == null || command.direction() == null) {
             log.warn("PLACE command missing required fields: {}", command);
+            recordState();
             return;
         }
 
         place(new Position(command.x(), command.y()), command.direction());
     }
 
+    @Override
+    public HistoryEntry getStateAt(long sequence) {
+        HistoryEntry entry;
+        long oldest;
+        long latest;
+        historyLock.lock();
+        try {
+            entry = history.stateAt(sequence);
+            oldest = history.oldestSequence();
+            latest = history.latestSequence();
+        } finally {
+            historyLock.unlock();
+        }
+
+        if (entry == null) {
+            log.warn("State {} requested but history holds {}..{}", sequence, oldest, latest);
+            throw new StateNotRetainedException("State " + sequence + " is not held in the history");
+        }
+        return entry;
+    }
+
+    @Override
+    public List<HistoryEntry> getRecentHistory(int limit) {
+        historyLock.lock();
+        try {
+            return history.recent(limit);
+        } finally {
+            historyLock.unlock();
+        }
+    }
+
+    @Override
+    public byte[] getHeatmap() {
+        return heatmap.report();
+    }
+
     @Override
     public void reset() {
-        robot.reset();
+        writeLock.lock();
+        try {
+            robot.reset();
+            recordState();
+        } finally {
+            writeLock.unlock();
+        }
         log.info("Robot has been reset and removed from the table");
     }
 }
@@ -0,0 +1,61 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationStatus;
+
+import java.util.List;
+
+public interface SimulationService {
+
+    /**
+     * @return number of robots in the simulation.
+     */
+    int size();
+
+    /**
+     * Queues the passed list of commands for one robot, to run one command per tick after
+     * anything already queued for it. Commands that can't be executed when their tick comes,
+     * including moves into a cell another robot holds or wins, are ignored.
+     *
+     * @param robotId  index of the robot in the simulation.
+     * @param commands list of commands in the CommandDTO format.
+     * @throws com.cat.robot.exception.RobotNotFoundException if there is no robot with that id.
+     */
+    void enqueue(int robotId, List<CommandDTO> commands);
+
+    /**
+     * Runs the given number of ticks as fast as possible and waits for them to finish.
+     *
+     * @throws com.cat.robot.exception.SimulationRunningException if ticks are running in the background.
+     */
+    SimulationStatus runTicks(int count);
+
+    /**
+     * Starts running ticks in the background until {@link #stop()} is called.
+     *
+     * @param ticksPerSecond fixed rate to run at; 0 or less runs ticks back to back.
+     * @throws com.cat.robot.exception.SimulationRunningException if ticks are already running.
+     */
+    SimulationStatus start(double ticksPerSecond);
+
+    /**
+     * Stops running ticks in the background, after the tick in progress has finished.
+     */
+    SimulationStatus stop();
+
+    SimulationStatus getStatus();
+
+    /**
+     * Returns a report of one robot's state as of the last finished tick.
+     *
+     * @param robotId index of the robot in the simulation.
+     * @throws com.cat.robot.exception.RobotNotFoundException if there is no robot with that id.
+     */
+    RobotState getState(int robotId);
+
+    /**
+     * Stops the simulation, removes every robot from the table and drops all queued commands.
+     */
+    void reset();
+}
@@ -0,0 +1,269 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.engine.CommandProgram;
+import com.cat.robot.engine.TickScheduler;
+import com.cat.robot.exception.RobotNotFoundException;
+import com.cat.robot.exception.SimulationRunningException;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationStatus;
+import com.cat.robot.model.Table;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class SimulationServiceImpl implements SimulationService, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationServiceImpl.class);
+
+    private final TickScheduler scheduler;
+    private final ScheduledExecutorService driver;
+
+    /**
+     * Held for each tick and for every read or change of the scheduler's state. Fair, so a
+     * free-running loop that re-takes it straight after each tick can't starve requests.
+     */
+    private final ReentrantLock tickLock = new ReentrantLock(true);
+
+    /**
+     * Held while starting or stopping background runs.
+     */
+    private final ReentrantLock controlLock = new ReentrantLock();
+
+    private Future<?> backgroundRun;
+    private volatile boolean running;
+    private volatile double targetTicksPerSecond;
+    private volatile double ticksPerSecond;
+    /**
+     * The scheduler's tick count, published after every tick so status reads need no lock.
+     */
+    private volatile long tickCount;
+    private long runStartTick;
+    private long runStartNanos;
+
+    @Autowired
+    public SimulationServiceImpl(@Value("${robot.table.default.width}") long tableWidth,
+                                 @Value("${robot.table.default.height}") long tableHeight,
+                                 @Value("${robot.simulation.size:1000}") int size,
+                                 @Value("${robot.simulation.workers:0}") int workers) {
+        this(new TickScheduler(new Table(tableWidth, tableHeight), size, workers));
+    }
+
+    SimulationServiceImpl(TickScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.driver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "simulation-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Simulation of {} robots using {} workers", scheduler.size(), scheduler.workers());
+    }
+
+    @Override
+    public int size() {
+        return scheduler.size();
+    }
+
+    @Override
+    public void enqueue(int robotId, List<CommandDTO> commands) {
+        checkRobotExists(robotId);
+
+        if (commands == null) {
+            log.warn("Cannot call enqueue for simulated robot {} with null", robotId);
+            return;
+        }
+
+        CommandProgram program = CommandProgram.compile(commands);
+        tickLock.lock();
+        try {
+            scheduler.enqueue(robotId, program);
+        } finally {
+            tickLock.unlock();
+        }
+        log.info("Queued {} commands for simulated robot {}", program.length(), robotId);
+    }
+
+    @Override
+    public SimulationStatus runTicks(int count) {
+        controlLock.lock();
+        try {
+            checkNotRunning();
+            markRunStart();
+            for (int i = 0; i < count; i++) {
+                tick();
+            }
+        } finally {
+            controlLock.unlock();
+        }
+        log.info("Ran {} ticks at {} ticks per second", count, ticksPerSecond);
+        return getStatus();
+    }
+
+    @Override
+    public SimulationStatus start(double ticksPerSecond) {
+        controlLock.lock();
+        try {
+            checkNotRunning();
+            markRunStart();
+            targetTicksPerSecond = Math.max(0, ticksPerSecond);
+            running = true;
+
+            if (targetTicksPerSecond > 0) {
+                long periodNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / targetTicksPerSecond));
+                backgroundRun = driver.scheduleAtFixedRate(this::backgroundTick, 0, periodNanos, TimeUnit.NANOSECONDS);
+            } else {
+                backgroundRun = driver.submit(() -> {
+                    while (running) {
+                        backgroundTick();
+                    }
+                });
+            }
+        } finally {
+            controlLock.unlock();
+        }
+        log.info("Simulation started at {} ticks per second (0 = as fast as possible)", targetTicksPerSecond);
+        return getStatus();
+    }
+
+    @Override
+    public SimulationStatus stop() {
+        controlLock.lock();
+        try {
+            stopLocked();
+        } finally {
+            controlLock.unlock();
+        }
+        return getStatus();
+    }
+
+    private void stopLocked() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        backgroundRun.cancel(false);
+        try {
+            // the driver has one thread, so this only runs once the tick in progress is done
+            driver.submit(() -> { }).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            log.warn("Simulation driver failed while stopping", ex);
+        }
+        backgroundRun = null;
+        targetTicksPerSecond = 0;
+        log.info("Simulation stopped at tick {}", getStatus().tick());
+    }
+
+    @Override
+    public SimulationStatus getStatus() {
+        return new SimulationStatus(tickCount, running, targetTicksPerSecond, ticksPerSecond);
+    }
+
+    @Override
+    public RobotState getState(int robotId) {
+        checkRobotExists(robotId);
+
+        tickLock.lock();
+        try {
+            return scheduler.getState(robotId);
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    @Override
+    public void reset() {
+        controlLock.lock();
+        try {
+            stopLocked();
+            tickLock.lock();
+            try {
+                scheduler.reset();
+                tickCount = 0;
+                ticksPerSecond = 0;
+            } finally {
+                tickLock.unlock();
+            }
+        } finally {
+            controlLock.unlock();
+        }
+        log.info("Simulation has been reset");
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        driver.shutdownNow();
+        scheduler.close();
+    }
+
+    /**
+     * Runs one tick and updates the measured rate of the current run.
+     */
+    private void tick() {
+        tickLock.lock();
+        try {
+            scheduler.tick();
+            tickCount = scheduler.tickCount();
+            long elapsedNanos = System.nanoTime() - runStartNanos;
+            if (elapsedNanos > 0) {
+                ticksPerSecond = (scheduler.tickCount() - runStartTick) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+            }
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    /**
+     * Runs one tick of a background run. A failed tick ends the run, since the driver won't
+     * schedule the task again, so the run is marked stopped before the error is passed on.
+     */
+    private void backgroundTick() {
+        try {
+            tick();
+        } catch (RuntimeException | Error ex) {
+            running = false;
+            targetTicksPerSecond = 0;
+            log.error("Simulation stopped at tick {} after a tick failed", tickCount, ex);
+            throw ex;
+        }
+    }
+
+    private void markRunStart() {
+        tickLock.lock();
+        try {
+            runStartTick = scheduler.tickCount();
+            runStartNanos = System.nanoTime();
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    private void checkNotRunning() {
+        if (running) {
+            log.warn("Simulation request refused while ticks are running in the background");
+            throw new SimulationRunningException("Simulation is already running; stop it first");
+        }
+    }
+
+    private void checkRobotExists(int robotId) {
+        if (robotId < 0 || robotId >= scheduler.size()) {
+            log.warn("Simulated robot {} requested but simulation has {} robots", robotId, scheduler.size());
+            throw new RobotNotFoundException("No simulated robot with id " + robotId);
+        }
+    }
+}
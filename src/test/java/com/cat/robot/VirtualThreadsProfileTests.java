@@ -0,0 +1,55 @@
+package com.cat.robot;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(classes = {RobotApplication.class, VirtualThreadsProfileTests.ThreadController.class}, webEnvironment = RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTests {
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void test_request_isHandledOnVirtualThread() throws Exception {
+        assertEquals("true", get("/test/virtual-thread").body());
+    }
+
+    @Test
+    void test_report_isServed_withVirtualThreadsProfile() throws Exception {
+        HttpResponse<String> response = get("/robot/report");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"position\":null,\"direction\":null,\"isPlaced\":false}", response.body());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+    }
+
+    @RestController
+    @TestComponent
+    static class ThreadController {
+
+        @GetMapping("/test/virtual-thread")
+        boolean isVirtual() {
+            return Thread.currentThread().isVirtual();
+        }
+    }
+}
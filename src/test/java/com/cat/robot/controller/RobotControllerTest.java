@@ -1,8 +1,11 @@
 package com.cat.robot.controller;
 
+import com.cat.robot.exception.StateNotRetainedException;
 import com.cat.robot.model.Direction;
+import com.cat.robot.model.HistoryEntry;
 import com.cat.robot.model.Position;
 import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationResult;
 import com.cat.robot.service.RobotService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +20,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -189,6 +193,62 @@ class RobotControllerTest {
                 .andExpect(jsonPath("$.isPlaced").value(true));
     }
 
+    @Test
+    void test_dryRun_returnsProjectedStateAndIgnoredCount() throws Exception {
+        SimulationResult result = new SimulationResult(new RobotState(new Position(1, 2), Direction.NORTH, true), 1);
+
+        when(robotService.dryRun(any())).thenReturn(result);
+
+        String json = """
+                [
+                  { "type": "MOVE" },
+                  { "type": "PLACE", "x": 1, "y": 1, "direction": "NORTH" },
+                  { "type": "MOVE" }
+                ]
+                """;
+
+        mockMvc.perform(post("/robot/dry-run")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.finalState.position.x").value(1))
+                .andExpect(jsonPath("$.finalState.position.y").value(2))
+                .andExpect(jsonPath("$.ignoredCommands").value(1));
+    }
+
+    @Test
+    void test_stateAt_returnsOkAndEntry_whenStateRetained() throws Exception {
+        HistoryEntry entry = new HistoryEntry(3, new RobotState(new Position(1, 2), Direction.NORTH, true));
+
+        when(robotService.getStateAt(3)).thenReturn(entry);
+
+        mockMvc.perform(get("/robot/history/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sequence").value(3))
+                .andExpect(jsonPath("$.state.position.x").value(1))
+                .andExpect(jsonPath("$.state.position.y").value(2))
+                .andExpect(jsonPath("$.state.direction").value("NORTH"));
+    }
+
+    @Test
+    void test_stateAt_returnsNotFound_whenStateNotRetained() throws Exception {
+        when(robotService.getStateAt(99)).thenThrow(new StateNotRetainedException("State 99 is not held in the history"));
+
+        mockMvc.perform(get("/robot/history/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void test_heatmap_returnsOctetStream() throws Exception {
+        byte[] heatmap = {1, 2, 3};
+        when(robotService.getHeatmap()).thenReturn(heatmap);
+
+        mockMvc.perform(get("/robot/heatmap"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(content().bytes(heatmap));
+    }
+
     @Test
     void test_reset_returnsOk() throws Exception {
         mockMvc.perform(post("/robot/reset"))
@@ -0,0 +1,86 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.Table;
+import com.cat.robot.service.RobotService;
+import com.cat.robot.service.RobotServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkExecutorTest {
+
+    private static final String[] TYPES = {"PLACE", "MOVE", "MOVE", "MOVE", "LEFT", "RIGHT", "report", "SPIN"};
+    private static final int WIDTH = 6;
+    private static final int HEIGHT = 4;
+    private static final int FLEET_SIZE = 37;
+
+    @Test
+    void test_vectorExecutor_matchesPerRobotServiceSemantics() {
+        assertMatchesReference(new VectorBulkExecutor());
+    }
+
+    @Test
+    void test_scalarExecutor_matchesPerRobotServiceSemantics() {
+        assertMatchesReference(new ScalarBulkExecutor());
+    }
+
+    @Test
+    void test_create_fallsBackToScalar_whenVectorNotPreferred() {
+        assertInstanceOf(ScalarBulkExecutor.class, BulkExecutor.create(false));
+    }
+
+    private void assertMatchesReference(BulkExecutor executor) {
+        Random random = new Random(28);
+        Table table = new Table(WIDTH, HEIGHT);
+
+        for (int round = 0; round < 50; round++) {
+            long[] xs = new long[FLEET_SIZE];
+            long[] ys = new long[FLEET_SIZE];
+            int[] directions = new int[FLEET_SIZE];
+            boolean[] placed = new boolean[FLEET_SIZE];
+
+            List<List<CommandDTO>> setups = new ArrayList<>();
+            for (int id = 0; id < FLEET_SIZE; id++) {
+                List<CommandDTO> setup = randomProgram(random, 3);
+                setups.add(setup);
+                ScalarBulkExecutor.executeRange(table, xs, ys, directions, placed, id, id + 1, CommandProgram.compile(setup));
+            }
+
+            List<CommandDTO> program = randomProgram(random, 40);
+            executor.execute(table, xs, ys, directions, placed, FLEET_SIZE, CommandProgram.compile(program));
+
+            for (int id = 0; id < FLEET_SIZE; id++) {
+                RobotService reference = new RobotServiceImpl(WIDTH, HEIGHT);
+                reference.executeCommands(setups.get(id));
+                RobotState expected = reference.executeCommands(program);
+
+                RobotState actual = placed[id]
+                        ? new RobotState(new Position(xs[id], ys[id]), Direction.values()[directions[id]], true)
+                        : new RobotState(null, null, false);
+                assertEquals(expected, actual, "robot " + id + " in round " + round);
+            }
+        }
+    }
+
+    private List<CommandDTO> randomProgram(Random random, int length) {
+        List<CommandDTO> program = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            if (type.equals("PLACE")) {
+                Direction direction = Direction.values()[random.nextInt(4)];
+                program.add(new CommandDTO(type, random.nextInt(WIDTH + 2) - 1L, random.nextInt(HEIGHT + 2) - 1L, direction));
+            } else {
+                program.add(new CommandDTO(type, null, null, null));
+            }
+        }
+        return program;
+    }
+}
@@ -0,0 +1,345 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.FleetStore;
+import com.cat.robot.model.HistoryEntry;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.Table;
+import com.cat.robot.service.FleetServiceImpl;
+import com.cat.robot.service.RobotServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeded differential fuzzing of every execution engine against {@link RobotServiceImpl}.
+ * Each case picks a table, generates a random program (including null and malformed commands,
+ * odd spellings and off-table or extreme PLACEs), runs it through the service, and checks that
+ * {@link RobotSimulator}, {@link CheckpointedProgram} (before and after a random edit), both
+ * {@link BulkExecutor}s, the sharded fleet and the {@link TickScheduler} agree on the final
+ * state and, where they report one, the ignored count.
+ * <p>
+ * Case {@code i} is generated from seed {@code fuzz.seed + i}, so a failure can be replayed
+ * alone with {@code -Dfuzz.seed=<seed> -Dfuzz.cases=1}. {@code -Dfuzz.cases} also raises the
+ * number of cases; the benchmark-tagged test runs a million, spread over every core, and
+ * reports cases per minute.
+ */
+class DifferentialFuzzTest {
+
+    private static final long DEFAULT_SEED = 37;
+    private static final int DEFAULT_CASES = 2_000;
+    private static final int BENCHMARK_CASES = 1_000_000;
+
+    private static final int MAX_PROGRAM_LENGTH = 40;
+    private static final int MAX_BULK_ROBOTS = 11;
+    private static final int FLEET_SIZE = 9;
+
+    /**
+     * The fleet and tick engines hand work to other threads, so they only check every Nth case.
+     */
+    private static final int THREADED_ENGINE_SAMPLING = 16;
+
+    private static final Table[] TABLES = {
+            new Table(1, 1),
+            new Table(5, 5),
+            new Table(6, 4),
+            new Table(1, 9),
+            new Table(1000, 3),
+            new Table(Table.UNBOUNDED, 2),
+            new Table(Table.UNBOUNDED, Table.UNBOUNDED)
+    };
+
+    private static final String[][] SPELLINGS = {
+            {"MOVE", "move", " Move ", "mOvE\t"},
+            {"LEFT", "left", " Left", "lEfT "},
+            {"RIGHT", "right", "Right ", "\tRIGHT"},
+            {"PLACE", "place", " Place ", "pLaCe"},
+            {"REPORT", "JUMP", "", "   ", "MOVEX", "LEF T"}
+    };
+
+    @Test
+    void test_enginesMatchReferenceService() {
+        long seed = Long.getLong("fuzz.seed", DEFAULT_SEED);
+        int cases = Integer.getInteger("fuzz.cases", DEFAULT_CASES);
+
+        try (Harness harness = new Harness()) {
+            harness.run(seed, cases);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark_casesPerMinute() {
+        long seed = Long.getLong("fuzz.seed", DEFAULT_SEED);
+        int cases = Integer.getInteger("fuzz.cases", BENCHMARK_CASES);
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        int casesPerWorker = Math.ceilDiv(cases, workers);
+
+        long start = System.nanoTime();
+        IntStream.range(0, workers).parallel().forEach(worker -> {
+            try (Harness harness = new Harness()) {
+                long first = (long) worker * casesPerWorker;
+                harness.run(seed + first, (int) Math.min(casesPerWorker, cases - first));
+            }
+        });
+        double minutes = (System.nanoTime() - start) / 60e9;
+        System.out.printf("%d differential cases on %d threads in %.1f s, %.3e cases per minute%n",
+                cases, workers, minutes * 60, cases / minutes);
+    }
+
+    private static final class Harness implements AutoCloseable {
+
+        private final FleetServiceImpl[] fleets = new FleetServiceImpl[TABLES.length];
+        private final TickScheduler[] schedulers = new TickScheduler[TABLES.length];
+        private final RobotServiceImpl[] services = new RobotServiceImpl[TABLES.length];
+        private final BulkExecutor[] bulkExecutors = {new ScalarBulkExecutor(), BulkExecutor.create(true)};
+
+        Harness() {
+            for (int i = 0; i < TABLES.length; i++) {
+                services[i] = new RobotServiceImpl(TABLES[i].width(), TABLES[i].height(), 1);
+                fleets[i] = new FleetServiceImpl(TABLES[i].width(), TABLES[i].height(), FLEET_SIZE, true,
+                        FleetStore.AUTO_INDEX_CELL_SIZE, 2);
+                schedulers[i] = new TickScheduler(TABLES[i], 1, 1);
+            }
+        }
+
+        void run(long seed, int cases) {
+            for (int i = 0; i < cases; i++) {
+                runCase(seed + i, i % THREADED_ENGINE_SAMPLING == 0);
+            }
+        }
+
+        private void runCase(long seed, boolean threadedEngines) {
+            Random random = new Random(seed);
+            int tableIndex = random.nextInt(TABLES.length);
+            Table table = TABLES[tableIndex];
+            List<CommandDTO> commands = randomProgram(random, table, random.nextInt(MAX_PROGRAM_LENGTH + 1));
+            Reference reference = Reference.run(table, commands);
+            Case context = new Case(seed, table, commands);
+
+            RobotSimulator simulator = new RobotSimulator(table);
+            int ignored = simulator.run(CommandProgram.compile(commands), 0, commands.size());
+            context.check("RobotSimulator", reference.finalState(), reference.ignored(), simulator.state(), ignored);
+
+            checkCheckpointedProgram(random, context, reference);
+            checkBulkExecutors(context, reference, services[tableIndex]);
+
+            if (threadedEngines) {
+                FleetServiceImpl fleet = fleets[tableIndex];
+                fleet.reset();
+                RobotState fleetState = fleet.executeCommands(random.nextInt(FLEET_SIZE), commands);
+                context.check("FleetServiceImpl", reference.finalState(), fleetState);
+
+                TickScheduler scheduler = schedulers[tableIndex];
+                scheduler.reset();
+                scheduler.enqueue(0, CommandProgram.compile(commands));
+                for (int tick = 0; tick < commands.size(); tick++) {
+                    scheduler.tick();
+                }
+                context.check("TickScheduler", reference.finalState(), scheduler.getState(0));
+            }
+        }
+
+        private void checkCheckpointedProgram(Random random, Case context, Reference reference) {
+            Table table = context.table();
+            int interval = 1 + random.nextInt(8);
+            CheckpointedProgram program = new CheckpointedProgram(table, new RobotState(null, null, false),
+                    CommandProgram.compile(context.commands()), interval);
+            context.check("CheckpointedProgram", reference.finalState(), reference.ignored(),
+                    program.finalState(), program.ignoredCommands());
+
+            if (context.commands().isEmpty()) {
+                return;
+            }
+            int index = random.nextInt(context.commands().size());
+            CommandDTO replacement = randomCommand(random, table);
+            List<CommandDTO> edited = new ArrayList<>(context.commands());
+            edited.set(index, replacement);
+
+            Reference editedReference = Reference.run(table, edited);
+            program.replace(index, replacement);
+            new Case(context.seed(), table, edited).check("CheckpointedProgram after edit at " + index,
+                    editedReference.finalState(), editedReference.ignored(), program.finalState(), program.ignoredCommands());
+        }
+
+        /**
+         * Starts each robot of a small fleet from the reference state after a different prefix
+         * of the program, so vector lanes hold a mix of states, then runs the whole program. The
+         * expected state of each robot comes from the service running its prefix and then the
+         * program.
+         */
+        private void checkBulkExecutors(Case context, Reference reference, RobotServiceImpl service) {
+            Table table = context.table();
+            CommandProgram program = CommandProgram.compile(context.commands());
+            int robots = Math.min(MAX_BULK_ROBOTS, reference.states().size());
+
+            // robot id starts from the state after the first id commands, so the service runs those
+            // first; robots with the same start state share one run, and the empty prefix is the reference
+            Map<RobotState, RobotState> expectedByStart = new HashMap<>();
+            expectedByStart.put(reference.states().get(0), reference.finalState());
+            RobotState[] expected = new RobotState[robots];
+            for (int id = 0; id < robots; id++) {
+                int prefix = id;
+                expected[id] = expectedByStart.computeIfAbsent(reference.states().get(id), start -> {
+                    List<CommandDTO> prefixThenProgram = new ArrayList<>(context.commands().subList(0, prefix));
+                    prefixThenProgram.addAll(context.commands());
+                    service.reset();
+                    return service.executeCommands(prefixThenProgram);
+                });
+            }
+
+            for (BulkExecutor executor : bulkExecutors) {
+                long[] xs = new long[robots];
+                long[] ys = new long[robots];
+                int[] directions = new int[robots];
+                boolean[] placed = new boolean[robots];
+                for (int id = 0; id < robots; id++) {
+                    RobotState start = reference.states().get(id);
+                    if (start.isPlaced()) {
+                        xs[id] = start.position().x();
+                        ys[id] = start.position().y();
+                        directions[id] = start.direction().ordinal();
+                        placed[id] = true;
+                    }
+                }
+
+                executor.execute(table, xs, ys, directions, placed, robots, program);
+
+                for (int id = 0; id < robots; id++) {
+                    RobotSimulator actual = new RobotSimulator(table);
+                    actual.load(placed[id], xs[id], ys[id], directions[id]);
+                    context.check(executor.getClass().getSimpleName() + " robot " + id, expected[id], actual.state());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            for (int i = 0; i < TABLES.length; i++) {
+                fleets[i].close();
+                schedulers[i].close();
+            }
+        }
+    }
+
+    /**
+     * Result of running a program through the reference service. {@code states} holds the
+     * state before the program and after each command, from the service's history.
+     */
+    private record Reference(RobotState finalState, int ignored, List<RobotState> states) {
+
+        static Reference run(Table table, List<CommandDTO> commands) {
+            RobotServiceImpl service = new RobotServiceImpl(table.width(), table.height(), commands.size() + 1);
+            service.executeCommands(commands);
+
+            List<RobotState> states = new ArrayList<>(commands.size() + 1);
+            for (HistoryEntry entry : service.getRecentHistory(commands.size() + 1)) {
+                states.add(entry.state());
+            }
+
+            // every command is recorded, and any command that is not ignored changes the state
+            int ignored = 0;
+            for (int i = 1; i < states.size(); i++) {
+                if (states.get(i).equals(states.get(i - 1))) {
+                    ignored++;
+                }
+            }
+            return new Reference(service.getReport(), ignored, states);
+        }
+    }
+
+    private record Case(long seed, Table table, List<CommandDTO> commands) {
+
+        void check(String engine, RobotState expected, RobotState actual) {
+            if (!expected.equals(actual)) {
+                fail(describe(engine, expected + "", actual + ""));
+            }
+        }
+
+        void check(String engine, RobotState expected, int expectedIgnored, RobotState actual, int actualIgnored) {
+            if (!expected.equals(actual) || expectedIgnored != actualIgnored) {
+                fail(describe(engine, expected + " ignoring " + expectedIgnored, actual + " ignoring " + actualIgnored));
+            }
+        }
+
+        private String describe(String engine, String expected, String actual) {
+            return engine + " differs from RobotServiceImpl for seed " + seed + " on " + table
+                    + "\n  program:  " + commands
+                    + "\n  expected: " + expected
+                    + "\n  actual:   " + actual;
+        }
+    }
+
+    private static List<CommandDTO> randomProgram(Random random, Table table, int length) {
+        List<CommandDTO> commands = new ArrayList<>(length);
+        // most programs start with a PLACE that can land, so moves and turns get exercised
+        if (length > 0 && random.nextInt(4) > 0) {
+            commands.add(new CommandDTO(spelling(random, 3), coordinate(random, table.width()),
+                    coordinate(random, table.height()), randomDirection(random)));
+        }
+        while (commands.size() < length) {
+            commands.add(randomCommand(random, table));
+        }
+        return commands;
+    }
+
+    private static CommandDTO randomCommand(Random random, Table table) {
+        return switch (random.nextInt(20)) {
+            case 0 -> null;
+            case 1 -> new CommandDTO(null, null, null, null);
+            case 2 -> new CommandDTO(spelling(random, 4), null, null, null);
+            case 3 -> malformedPlace(random, table);
+            case 4, 5, 6 -> new CommandDTO(spelling(random, 3), coordinate(random, table.width()),
+                    coordinate(random, table.height()), randomDirection(random));
+            case 7, 8, 9, 10, 11, 12 -> new CommandDTO(spelling(random, 0), null, null, null);
+            case 13, 14, 15 -> new CommandDTO(spelling(random, 1), null, null, null);
+            case 16, 17, 18 -> new CommandDTO(spelling(random, 2), null, null, null);
+            default -> new CommandDTO(spelling(random, random.nextInt(3)), coordinate(random, table.width()),
+                    coordinate(random, table.height()), randomDirection(random));
+        };
+    }
+
+    /**
+     * A PLACE missing at least one of its fields.
+     */
+    private static CommandDTO malformedPlace(Random random, Table table) {
+        int missing = 1 + random.nextInt(7);
+        return new CommandDTO(spelling(random, 3),
+                (missing & 1) != 0 ? null : coordinate(random, table.width()),
+                (missing & 2) != 0 ? null : coordinate(random, table.height()),
+                (missing & 4) != 0 ? null : randomDirection(random));
+    }
+
+    /**
+     * A coordinate on or just off the table, on its far edge, or at the extremes of a long.
+     */
+    private static long coordinate(Random random, long bound) {
+        return switch (random.nextInt(10)) {
+            case 0 -> -1;
+            case 1 -> bound - 1;
+            case 2 -> bound;
+            case 3 -> random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE;
+            case 4 -> bound - 1 - random.nextInt(3);
+            default -> random.nextInt((int) Math.min(bound, 8) + 2) - 1;
+        };
+    }
+
+    private static Direction randomDirection(Random random) {
+        return Direction.values()[random.nextInt(4)];
+    }
+
+    private static String spelling(Random random, int command) {
+        String[] spellings = SPELLINGS[command];
+        return spellings[random.nextInt(spellings.length)];
+    }
+}
@@ -0,0 +1,98 @@
+package com.cat.robot.engine;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.FleetStore;
+import com.cat.robot.service.FleetServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Shows how the sharded fleet scales from one shard to one per core. Not part of the normal
+ * build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class FleetShardsBenchmark {
+
+    private static final int FLEET_SIZE = 1_000_000;
+    private static final int BULK_PROGRAM_LENGTH = 200;
+    private static final int ROUTED_REQUESTS = 200_000;
+
+    @Test
+    void benchmark_shardScaling() throws Exception {
+        List<CommandDTO> bulkProgram = randomProgram(new Random(30), BULK_PROGRAM_LENGTH);
+        List<CommandDTO> routedProgram = randomProgram(new Random(31), 8);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%-8s %18s %22s%n", "shards", "bulk robot-cmds/s", "routed requests/s");
+        for (int shards : shardCounts(cores)) {
+            try (FleetServiceImpl fleet = new FleetServiceImpl(1000, 1000, FLEET_SIZE, true,
+                    FleetStore.AUTO_INDEX_CELL_SIZE, shards)) {
+                fleet.executeBulk(List.of(new CommandDTO("PLACE", 500L, 500L, Direction.NORTH)));
+                fleet.executeBulk(bulkProgram);
+
+                long start = System.nanoTime();
+                for (int round = 0; round < 5; round++) {
+                    fleet.executeBulk(bulkProgram);
+                }
+                double bulkRate = 5.0 * FLEET_SIZE * BULK_PROGRAM_LENGTH / seconds(start);
+
+                start = System.nanoTime();
+                routed(fleet, routedProgram, cores);
+                double routedRate = ROUTED_REQUESTS / seconds(start);
+
+                System.out.printf("%-8d %18.3e %22.3e%n", shards, bulkRate, routedRate);
+            }
+        }
+    }
+
+    private void routed(FleetServiceImpl fleet, List<CommandDTO> program, int clients) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                int seed = client;
+                futures.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < ROUTED_REQUESTS / clients; i++) {
+                        fleet.executeCommands(random.nextInt(FLEET_SIZE), program);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<Integer> shardCounts(int cores) {
+        List<Integer> counts = new ArrayList<>();
+        for (int shards = 1; shards < cores; shards *= 2) {
+            counts.add(shards);
+        }
+        counts.add(cores);
+        return counts;
+    }
+
+    private static List<CommandDTO> randomProgram(Random random, int length) {
+        String[] types = {"MOVE", "MOVE", "LEFT", "RIGHT"};
+        List<CommandDTO> program = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            program.add(new CommandDTO(types[random.nextInt(types.length)], null, null, null));
+        }
+        return program;
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
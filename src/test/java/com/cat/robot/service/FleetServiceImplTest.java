@@ -0,0 +1,321 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.exception.RobotNotFoundException;
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.FleetRobot;
+import com.cat.robot.model.FleetStore;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.Region;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SquaredDistance;
+import com.cat.robot.model.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetServiceImplTest {
+
+    FleetServiceImpl fleetService;
+
+    @BeforeEach
+    void setUp() {
+        fleetService = new FleetServiceImpl(5, 5, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fleetService.close();
+    }
+
+    @Test
+    void test_executeCommands_movesOnlyTheAddressedRobot() {
+        List<CommandDTO> commands = Arrays.asList(
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("PLACE", 1L, 1L, Direction.NORTH),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("RIGHT", null, null, null),
+                new CommandDTO("MOVE", null, null, null)
+        );
+
+        RobotState finalState = fleetService.executeCommands(1, commands);
+
+        assertEquals(new RobotState(new Position(2, 2), Direction.EAST, true), finalState);
+        assertFalse(fleetService.getReport(0).isPlaced());
+        assertFalse(fleetService.getReport(2).isPlaced());
+    }
+
+    @Test
+    void test_executeCommands_ignoresMovesOffTheTableAndSecondPlace() {
+        List<CommandDTO> commands = Arrays.asList(
+                new CommandDTO("PLACE", 0L, 4L, Direction.NORTH),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("PLACE", 2L, 2L, Direction.SOUTH),
+                new CommandDTO("LEFT", null, null, null),
+                new CommandDTO("MOVE", null, null, null)
+        );
+
+        RobotState finalState = fleetService.executeCommands(0, commands);
+
+        assertEquals(new RobotState(new Position(0, 4), Direction.WEST, true), finalState);
+    }
+
+    @Test
+    void test_executeCommands_throws_whenRobotDoesNotExist() {
+        assertThrows(RobotNotFoundException.class, () -> fleetService.executeCommands(3, List.of()));
+        assertThrows(RobotNotFoundException.class, () -> fleetService.getReport(-1));
+    }
+
+    @Test
+    void test_fleetReport_writesColumnsInRobotOrder() {
+        fleetService.executeCommands(0, List.of(new CommandDTO("PLACE", 1L, 2L, Direction.EAST)));
+        fleetService.executeCommands(2, List.of(new CommandDTO("PLACE", 4L, 3L, Direction.WEST)));
+
+        ByteBuffer report = ByteBuffer.wrap(fleetService.getFleetReport()).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(FleetStore.REPORT_HEADER_BYTES + 3 * 21, report.remaining());
+        assertEquals(3, report.getLong());
+        assertEquals(5, report.getLong());
+        assertEquals(5, report.getLong());
+        assertEquals(1, report.getLong(24));
+        assertEquals(4, report.getLong(40));
+        assertEquals(2, report.getLong(48));
+        assertEquals(3, report.getLong(64));
+        assertEquals(Direction.EAST.ordinal(), report.getInt(72));
+        assertEquals(Direction.WEST.ordinal(), report.getInt(80));
+        assertEquals(1, report.get(84));
+        assertEquals(0, report.get(85));
+        assertEquals(1, report.get(86));
+    }
+
+    @Test
+    void test_regionAndNearest_followRobotsAsTheyMove() {
+        fleetService.executeCommands(0, List.of(new CommandDTO("PLACE", 0L, 0L, Direction.NORTH)));
+        fleetService.executeCommands(1, List.of(new CommandDTO("PLACE", 4L, 4L, Direction.SOUTH)));
+
+        assertEquals(List.of(0), ids(fleetService.getRobotsIn(new Region(0, 0, 1, 1))));
+        assertEquals(1, fleetService.getNearest(new Position(3, 3)).id());
+
+        fleetService.executeBulk(List.of(new CommandDTO("MOVE", null, null, null), new CommandDTO("MOVE", null, null, null)));
+
+        assertEquals(List.of(0, 1), ids(fleetService.getRobotsIn(new Region(0, 2, 4, 2))));
+        assertEquals(0, fleetService.getNearest(new Position(-3, 2)).id());
+        assertEquals(new Position(4, 2), fleetService.getNearest(new Position(9, 9)).state().position());
+    }
+
+    @Test
+    void test_executeInRegion_onlyCommandsRobotsInsideTheRegion() {
+        fleetService.executeCommands(0, List.of(new CommandDTO("PLACE", 0L, 0L, Direction.NORTH)));
+        fleetService.executeCommands(1, List.of(new CommandDTO("PLACE", 3L, 0L, Direction.NORTH)));
+
+        List<FleetRobot> moved = fleetService.executeInRegion(new Region(2, 0, 4, 4),
+                List.of(new CommandDTO("MOVE", null, null, null)));
+
+        assertEquals(List.of(1), ids(moved));
+        assertEquals(new Position(3, 1), moved.get(0).state().position());
+        assertEquals(new Position(0, 0), fleetService.getReport(0).position());
+    }
+
+    @Test
+    void test_getNearest_throws_whenNoRobotPlaced() {
+        assertThrows(RobotNotFoundException.class, () -> fleetService.getNearest(new Position(1, 1)));
+    }
+
+    @Test
+    void test_shardedFleet_routesByIdAndMergesFleetWideResults() {
+        fleetService.close();
+        fleetService = new FleetServiceImpl(5, 5, 10, true, FleetStore.AUTO_INDEX_CELL_SIZE, 4);
+
+        for (int id = 0; id < 10; id++) {
+            fleetService.executeCommands(id, List.of(new CommandDTO("PLACE", id % 5L, id / 5L, Direction.NORTH)));
+        }
+        fleetService.executeBulk(List.of(new CommandDTO("MOVE", null, null, null)));
+
+        assertEquals(new Position(3, 2), fleetService.getReport(8).position());
+        assertEquals(List.of(5, 6, 7, 8, 9), ids(fleetService.getRobotsIn(new Region(0, 2, 4, 2))));
+        assertEquals(9, fleetService.getNearest(new Position(6, 3)).id());
+
+        ByteBuffer report = ByteBuffer.wrap(fleetService.getFleetReport()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int id = 0; id < 10; id++) {
+            assertEquals(id % 5, report.getLong(FleetStore.REPORT_HEADER_BYTES + id * 8));
+            assertEquals(id / 5 + 1, report.getLong(FleetStore.REPORT_HEADER_BYTES + 80 + id * 8));
+            assertEquals(1, report.get(FleetStore.REPORT_HEADER_BYTES + 200 + id));
+        }
+    }
+
+    @Test
+    void test_getFleetReport_coversEveryRobot_whenShardsDoNotDivideFleet() {
+        fleetService.close();
+        // 4 shards of 2 robots would leave the last one empty
+        fleetService = new FleetServiceImpl(5, 5, 5, true, FleetStore.AUTO_INDEX_CELL_SIZE, 4);
+        for (int id = 0; id < 5; id++) {
+            fleetService.executeCommands(id, List.of(new CommandDTO("PLACE", (long) id, 0L, Direction.EAST)));
+        }
+
+        ByteBuffer report = ByteBuffer.wrap(fleetService.getFleetReport()).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(FleetStore.reportSize(5), report.capacity());
+        assertEquals(5, report.getLong(0));
+        for (int id = 0; id < 5; id++) {
+            assertEquals(id, report.getLong(FleetStore.REPORT_HEADER_BYTES + id * 8));
+            assertEquals(1, report.get(FleetStore.REPORT_HEADER_BYTES + 5 * 20 + id));
+        }
+    }
+
+    @Test
+    void test_regionAndNearest_matchFullScan_onLargeTable() {
+        int size = 2000;
+        FleetStore store = new FleetStore(new Table(1000, 700), size, 4);
+        Random random = new Random(29);
+        for (int id = 0; id < size; id++) {
+            if (random.nextInt(10) > 0) {
+                store.place(id, random.nextInt(1000), random.nextInt(700), Direction.values()[random.nextInt(4)]);
+            }
+            for (int step = random.nextInt(20); step > 0; step--) {
+                store.move(id);
+            }
+        }
+
+        for (int query = 0; query < 200; query++) {
+            int x = random.nextInt(1100) - 50;
+            int y = random.nextInt(800) - 50;
+            Region region = new Region(x, y, x + random.nextInt(200), y + random.nextInt(200));
+
+            List<Integer> expectedInRegion = new ArrayList<>();
+            int expectedNearest = -1;
+            long bestDistance = Long.MAX_VALUE;
+            for (int id = 0; id < size; id++) {
+                RobotState state = store.getState(id);
+                if (!state.isPlaced()) {
+                    continue;
+                }
+                if (region.contains(state.position().x(), state.position().y())) {
+                    expectedInRegion.add(id);
+                }
+                long dx = state.position().x() - x;
+                long dy = state.position().y() - y;
+                if (dx * dx + dy * dy < bestDistance) {
+                    bestDistance = dx * dx + dy * dy;
+                    expectedNearest = id;
+                }
+            }
+
+            assertEquals(expectedInRegion, boxed(store.robotsIn(region)));
+            assertEquals(expectedNearest, store.nearest(x, y));
+        }
+    }
+
+    @Test
+    void test_regionAndNearest_matchFullScan_onUnboundedTable() {
+        int size = 500;
+        FleetStore store = new FleetStore(new Table(Table.UNBOUNDED, Table.UNBOUNDED), size);
+        Random random = new Random(33);
+        for (int id = 0; id < size; id++) {
+            // half the fleet clustered near the origin, the rest anywhere up to the far edge
+            long bound = id % 2 == 0 ? 100 : Table.UNBOUNDED;
+            store.place(id, random.nextLong(bound), random.nextLong(bound), Direction.values()[random.nextInt(4)]);
+            for (int step = random.nextInt(20); step > 0; step--) {
+                store.move(id);
+            }
+        }
+
+        for (int query = 0; query < 200; query++) {
+            long bound = query % 2 == 0 ? 100 : Table.UNBOUNDED;
+            long x = random.nextLong(bound);
+            long y = random.nextLong(bound);
+            Region region = new Region(x, y, x + random.nextLong(bound - x), y + random.nextLong(bound - y));
+
+            List<Integer> expectedInRegion = new ArrayList<>();
+            int expectedNearest = -1;
+            SquaredDistance bestDistance = null;
+            for (int id = 0; id < size; id++) {
+                Position position = store.getState(id).position();
+                if (region.contains(position.x(), position.y())) {
+                    expectedInRegion.add(id);
+                }
+                SquaredDistance distance = SquaredDistance.between(position.x(), position.y(), x, y);
+                if (bestDistance == null || distance.compareTo(bestDistance) < 0) {
+                    bestDistance = distance;
+                    expectedNearest = id;
+                }
+            }
+
+            assertEquals(expectedInRegion, boxed(store.robotsIn(region)));
+            assertEquals(expectedNearest, store.nearest(x, y));
+        }
+    }
+
+    @Test
+    void test_fleetStore_staysSmall_forSparseFleet() {
+        // 21 bytes of state and 12 of index per robot, plus the bucket table (41 and 67 today)
+        assertTrue(bytesPerPlacedRobot(new Table(100_000, 100_000)) <= 45);
+        // every robot alone in its bucket
+        assertTrue(bytesPerPlacedRobot(new Table(Table.UNBOUNDED, Table.UNBOUNDED)) <= 72);
+    }
+
+    @Test
+    void test_regionAndNearest_stayExact_whenRobotsLeaveAndRejoinBuckets() {
+        int size = 3000;
+        FleetStore store = new FleetStore(new Table(Table.UNBOUNDED, Table.UNBOUNDED), size);
+        Random random = new Random(333);
+        for (int round = 0; round < 5; round++) {
+            for (int id = 0; id < size; id++) {
+                store.reset(id);
+                if (random.nextInt(4) > 0) {
+                    store.place(id, random.nextLong(400), random.nextLong(400), Direction.values()[random.nextInt(4)]);
+                }
+            }
+
+            Region region = new Region(100, 100, 250, 250);
+            List<Integer> expectedInRegion = new ArrayList<>();
+            for (int id = 0; id < size; id++) {
+                Position position = store.getState(id).position();
+                if (position != null && region.contains(position.x(), position.y())) {
+                    expectedInRegion.add(id);
+                }
+            }
+            assertEquals(expectedInRegion, boxed(store.robotsIn(region)));
+        }
+    }
+
+    @Test
+    void test_move_stopsAtFarEdge_ofUnboundedTable() {
+        FleetStore store = new FleetStore(new Table(Table.UNBOUNDED, Table.UNBOUNDED), 1);
+        store.place(0, Table.UNBOUNDED - 2, 0, Direction.EAST);
+
+        assertTrue(store.move(0));
+        assertFalse(store.move(0));
+        assertEquals(new Position(Table.UNBOUNDED - 1, 0), store.getState(0).position());
+    }
+
+    /**
+     * Places robots scattered over a 100000 by 100000 area and returns the store's array
+     * bytes per robot.
+     */
+    private static long bytesPerPlacedRobot(Table table) {
+        int size = 150_000;
+        Random random = new Random(33);
+        FleetStore store = new FleetStore(table, size);
+        for (int id = 0; id < size; id++) {
+            store.place(id, random.nextLong(100_000), random.nextLong(100_000), Direction.NORTH);
+        }
+        return store.footprintBytes() / size;
+    }
+
+    private static List<Integer> ids(List<FleetRobot> robots) {
+        return robots.stream().map(FleetRobot::id).toList();
+    }
+
+    private static List<Integer> boxed(int[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+}
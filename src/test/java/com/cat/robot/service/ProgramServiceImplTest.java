@@ -0,0 +1,127 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.exception.CommandIndexOutOfRangeException;
+import com.cat.robot.exception.ProgramNotFoundException;
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.ProgramReport;
+import com.cat.robot.model.RobotState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgramServiceImplTest {
+
+    RobotService robotService;
+    ProgramService programService;
+
+    @BeforeEach
+    void setUp() {
+        robotService = new RobotServiceImpl(5, 5);
+        programService = new ProgramServiceImpl(robotService, 5, 5, 16);
+    }
+
+    @Test
+    void test_store_simulatesFromCurrentStateWithoutMovingRobot() {
+        robotService.place(new Position(1, 1), Direction.NORTH);
+
+        ProgramReport report = programService.store(List.of(
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("PLACE", 3L, 3L, Direction.SOUTH),
+                new CommandDTO("RIGHT", null, null, null),
+                new CommandDTO("MOVE", null, null, null)
+        ));
+
+        assertEquals(new RobotState(new Position(2, 2), Direction.EAST, true), report.finalState());
+        assertEquals(1, report.ignoredCommands());
+        assertEquals(new Position(1, 1), robotService.getReport().position());
+    }
+
+    @Test
+    void test_replaceCommand_matchesFullReplay() {
+        Random random = new Random(31);
+        List<CommandDTO> commands = randomProgram(random, 500);
+        long id = programService.store(commands).programId();
+
+        for (int edit = 0; edit < 200; edit++) {
+            int index = random.nextInt(commands.size());
+            CommandDTO command = randomProgram(random, 1).get(0);
+            commands.set(index, command);
+
+            ProgramReport report = programService.replaceCommand(id, index, command);
+
+            RobotService reference = new RobotServiceImpl(5, 5);
+            RobotState expected = reference.executeCommands(commands);
+            assertEquals(expected, report.finalState(), "edit " + edit);
+            assertEquals(countIgnored(commands), report.ignoredCommands(), "edit " + edit);
+        }
+    }
+
+    @Test
+    void test_replaceCommand_stopsAtFirstUnchangedCheckpoint() {
+        List<CommandDTO> commands = new ArrayList<>();
+        commands.add(new CommandDTO("PLACE", 0L, 0L, Direction.NORTH));
+        for (int i = 1; i < 1000; i++) {
+            commands.add(new CommandDTO("MOVE", null, null, null));
+        }
+        long id = programService.store(commands).programId();
+        assertEquals(1000, programService.get(id).simulatedCommands());
+
+        ProgramReport report = programService.replaceCommand(id, 500, new CommandDTO("WAVE", null, null, null));
+
+        assertEquals(16, report.simulatedCommands());
+        assertEquals(new RobotState(new Position(0, 4), Direction.NORTH, true), report.finalState());
+        assertEquals(995, report.ignoredCommands());
+    }
+
+    @Test
+    void test_replaceCommand_rejectsUnknownProgramAndIndex() {
+        long id = programService.store(List.of(new CommandDTO("MOVE", null, null, null))).programId();
+
+        assertThrows(CommandIndexOutOfRangeException.class,
+                () -> programService.replaceCommand(id, 1, new CommandDTO("MOVE", null, null, null)));
+        assertThrows(ProgramNotFoundException.class,
+                () -> programService.replaceCommand(id + 1, 0, new CommandDTO("MOVE", null, null, null)));
+
+        programService.delete(id);
+        assertThrows(ProgramNotFoundException.class, () -> programService.get(id));
+    }
+
+    /**
+     * Counts ignored commands by replaying one command at a time; every applied command changes the state.
+     */
+    private static int countIgnored(List<CommandDTO> commands) {
+        RobotService reference = new RobotServiceImpl(5, 5);
+        int ignored = 0;
+        for (CommandDTO command : commands) {
+            RobotState before = reference.getReport();
+            reference.executeCommands(Collections.singletonList(command));
+            if (before.equals(reference.getReport())) {
+                ignored++;
+            }
+        }
+        return ignored;
+    }
+
+    private static List<CommandDTO> randomProgram(Random random, int length) {
+        String[] types = {"PLACE", "MOVE", "MOVE", "LEFT", "RIGHT", "SPIN"};
+        List<CommandDTO> program = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            String type = types[random.nextInt(types.length)];
+            if (type.equals("PLACE")) {
+                program.add(new CommandDTO(type, random.nextInt(7) - 1L, random.nextInt(7) - 1L,
+                        Direction.values()[random.nextInt(4)]));
+            } else {
+                program.add(new CommandDTO(type, null, null, null));
+            }
+        }
+        return program;
+    }
+}
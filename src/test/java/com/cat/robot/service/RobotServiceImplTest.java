@@ -3,12 +3,19 @@ package com.cat.robot.service;
 import com.cat.robot.dto.CommandDTO;
 import com.cat.robot.exception.RobotNotAdjustedException;
 import com.cat.robot.exception.RobotNotPlacedException;
+import com.cat.robot.exception.StateNotRetainedException;
 import com.cat.robot.model.Direction;
+import com.cat.robot.model.HistoryEntry;
 import com.cat.robot.model.Position;
 import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationResult;
+import com.cat.robot.model.Table;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -95,6 +102,27 @@ class RobotServiceImplTest {
         assertEquals(startDirection, state.direction());
     }
 
+    @Test
+    void test_canPlaceAndMove_beyondIntRange_onUnboundedTable() {
+        robotService = new RobotServiceImpl(Table.UNBOUNDED, Table.UNBOUNDED);
+        Position startPosition = new Position(5_000_000_000L, 3_000_000_000L);
+        robotService.place(startPosition, Direction.EAST);
+
+        assertTrue(robotService.move());
+
+        assertEquals(new Position(5_000_000_001L, 3_000_000_000L), robotService.getReport().position());
+    }
+
+    @Test
+    void test_canNotMove_pastFarEdge_ofUnboundedTable() {
+        robotService = new RobotServiceImpl(Table.UNBOUNDED, Table.UNBOUNDED);
+        Position startPosition = new Position(0, Table.UNBOUNDED - 1);
+        robotService.place(startPosition, Direction.NORTH);
+
+        assertThrows(RobotNotAdjustedException.class, () -> robotService.move());
+        assertEquals(startPosition, robotService.getReport().position());
+    }
+
     @Test
     void test_validMovesAllowedAfterInvalidMove() {
         Position startPosition = new Position(1,4);
@@ -170,7 +198,7 @@ class RobotServiceImplTest {
     @Test
     void test_executeCommands_runsValidSequenceAndUpdatesState() {
         List<CommandDTO> commands = Arrays.asList(
-                new CommandDTO("PLACE", 1, 1, Direction.NORTH),
+                new CommandDTO("PLACE", 1L, 1L, Direction.NORTH),
                 new CommandDTO("MOVE", null, null, null),
                 new CommandDTO("RIGHT", null, null, null),
                 new CommandDTO("MOVE", null, null, null)
@@ -191,7 +219,7 @@ class RobotServiceImplTest {
                 null,
                 new CommandDTO(null, null, null, null),
                 new CommandDTO("SPIN", null, null, null),
-                new CommandDTO("PLACE", 1, 1, Direction.NORTH),
+                new CommandDTO("PLACE", 1L, 1L, Direction.NORTH),
                 new CommandDTO("MOVE", null, null, null),
                 new CommandDTO("WAVE", null, null, null)
         );
@@ -208,8 +236,8 @@ class RobotServiceImplTest {
     @Test
     void test_executeCommands_handlesInvalidPlaceMissingFields() {
         List<CommandDTO> commands = Arrays.asList(
-                new CommandDTO("PLACE", null, 1, Direction.NORTH), // missing x
-                new CommandDTO("PLACE", 1, 1, Direction.NORTH),
+                new CommandDTO("PLACE", null, 1L, Direction.NORTH), // missing x
+                new CommandDTO("PLACE", 1L, 1L, Direction.NORTH),
                 new CommandDTO("MOVE", null, null, null)
         );
 
@@ -241,4 +269,155 @@ class RobotServiceImplTest {
         assertNull(resetState.position());
         assertNull(resetState.direction());
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_history_recordsStateAfterEveryCommandIncludingIgnored() {
+        List<CommandDTO> commands = Arrays.asList(
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("PLACE", 1L, 1L, Direction.NORTH),
+                new CommandDTO("WAVE", null, null, null),
+                new CommandDTO("RIGHT", null, null, null),
+                new CommandDTO("MOVE", null, null, null)
+        );
+
+        robotService.executeCommands(commands);
+
+        assertFalse(robotService.getStateAt(0).state().isPlaced());
+        assertFalse(robotService.getStateAt(1).state().isPlaced());
+        assertEquals(new Position(1, 1), robotService.getStateAt(2).state().position());
+        assertEquals(new Position(1, 1), robotService.getStateAt(3).state().position());
+        assertEquals(Direction.EAST, robotService.getStateAt(4).state().direction());
+        assertEquals(new Position(2, 1), robotService.getStateAt(5).state().position());
+        assertThrows(StateNotRetainedException.class, () -> robotService.getStateAt(6));
+    }
+
+    @Test
+    void test_history_dropsOldestStates_whenCapacityExceeded() {
+        robotService = new RobotServiceImpl(5, 5, 3);
+        robotService.place(new Position(0, 0), Direction.NORTH);
+        robotService.move();
+        robotService.move();
+        robotService.move();
+
+        assertThrows(StateNotRetainedException.class, () -> robotService.getStateAt(1));
+
+        List<HistoryEntry> recent = robotService.getRecentHistory(10);
+        assertEquals(3, recent.size());
+        assertEquals(2, recent.get(0).sequence());
+        assertEquals(new Position(0, 1), recent.get(0).state().position());
+        assertEquals(new Position(0, 3), recent.get(2).state().position());
+    }
+
+    @Test
+    void test_dryRun_projectsFinalStateWithoutMovingRobot() {
+        robotService.place(new Position(1, 1), Direction.NORTH);
+        long sequenceBefore = robotService.getRecentHistory(1).get(0).sequence();
+
+        SimulationResult result = robotService.dryRun(Arrays.asList(
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("PLACE", 3L, 3L, Direction.SOUTH),
+                new CommandDTO("LEFT", null, null, null),
+                new CommandDTO("MOVE", null, null, null),
+                null,
+                new CommandDTO("MOVE", null, null, null)
+        ));
+
+        assertEquals(new RobotState(new Position(0, 2), Direction.WEST, true), result.finalState());
+        assertEquals(3, result.ignoredCommands());
+
+        RobotState state = robotService.getReport();
+        assertEquals(new Position(1, 1), state.position());
+        assertEquals(Direction.NORTH, state.direction());
+        assertEquals(sequenceBefore, robotService.getRecentHistory(1).get(0).sequence());
+    }
+
+    @Test
+    void test_dryRun_fromUnplacedRobot_ignoresCommandsUntilPlace() {
+        SimulationResult result = robotService.dryRun(Arrays.asList(
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("PLACE", 0L, 0L, Direction.EAST),
+                new CommandDTO("MOVE", null, null, null)
+        ));
+
+        assertEquals(new RobotState(new Position(1, 0), Direction.EAST, true), result.finalState());
+        assertEquals(1, result.ignoredCommands());
+        assertFalse(robotService.getReport().isPlaced());
+    }
+
+    @Test
+    void test_heatmap_countsVisitsAndRejections() {
+        robotService.executeCommands(Arrays.asList(
+                new CommandDTO("PLACE", 0L, 3L, Direction.NORTH),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("RIGHT", null, null, null),
+                new CommandDTO("MOVE", null, null, null)
+        ));
+
+        ByteBuffer heatmap = ByteBuffer.wrap(robotService.getHeatmap()).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(5, heatmap.getLong());
+        assertEquals(5, heatmap.getLong());
+        assertEquals(3, heatmap.getLong());
+        // cells in y then x order: (0,3), (0,4), (1,4)
+        assertArrayEquals(new long[]{0, 0, 1, 3, 4, 4, 1, 1, 1, 0, 2, 0}, readLongs(heatmap, 12));
+    }
+
+    @Test
+    void test_heatmap_onUnboundedTable_onlyHoldsUsedCells() {
+        robotService = new RobotServiceImpl(Table.UNBOUNDED, Table.UNBOUNDED);
+        List<CommandDTO> commands = new ArrayList<>();
+        commands.add(new CommandDTO("PLACE", 4_000_000_000L, 0L, Direction.SOUTH));
+        commands.add(new CommandDTO("MOVE", null, null, null));
+        commands.add(new CommandDTO("LEFT", null, null, null));
+        for (int i = 0; i < 2000; i++) {
+            commands.add(new CommandDTO("MOVE", null, null, null));
+        }
+        robotService.executeCommands(commands);
+
+        ByteBuffer heatmap = ByteBuffer.wrap(robotService.getHeatmap()).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(Table.UNBOUNDED, heatmap.getLong());
+        assertEquals(Table.UNBOUNDED, heatmap.getLong());
+        assertEquals(2001, heatmap.getLong());
+        long[] columns = readLongs(heatmap, 4 * 2001);
+        for (int cell = 0; cell < 2001; cell++) {
+            assertEquals(4_000_000_000L + cell, columns[cell]);
+            assertEquals(0, columns[2001 + cell]);
+            assertEquals(1, columns[2 * 2001 + cell]);
+            assertEquals(cell == 0 ? 1 : 0, columns[3 * 2001 + cell]);
+        }
+    }
+
+    @Test
+    void test_heatmap_onUnboundedTable_listsCellsInRowThenColumnOrder() {
+        robotService = new RobotServiceImpl(Table.UNBOUNDED, Table.UNBOUNDED);
+        robotService.executeCommands(Arrays.asList(
+                new CommandDTO("PLACE", 5L, 2L, Direction.WEST),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("RIGHT", null, null, null),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("RIGHT", null, null, null),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("RIGHT", null, null, null),
+                new CommandDTO("MOVE", null, null, null),
+                new CommandDTO("MOVE", null, null, null)
+        ));
+
+        ByteBuffer heatmap = ByteBuffer.wrap(robotService.getHeatmap()).order(ByteOrder.LITTLE_ENDIAN);
+        heatmap.position(2 * Long.BYTES);
+
+        assertEquals(7, heatmap.getLong());
+        long[] columns = readLongs(heatmap, 2 * 7);
+        // (6,1), (4,2), (5,2), (6,2), (4,3), (5,3), (6,3)
+        assertArrayEquals(new long[]{6, 4, 5, 6, 4, 5, 6, 1, 2, 2, 2, 3, 3, 3}, columns);
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        return values;
+    }
+}
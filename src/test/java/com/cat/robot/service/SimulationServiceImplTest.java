@@ -0,0 +1,212 @@
+package com.cat.robot.service;
+
+import com.cat.robot.dto.CommandDTO;
+import com.cat.robot.engine.TickScheduler;
+import com.cat.robot.exception.RobotNotFoundException;
+import com.cat.robot.exception.SimulationRunningException;
+import com.cat.robot.model.Direction;
+import com.cat.robot.model.Position;
+import com.cat.robot.model.RobotState;
+import com.cat.robot.model.SimulationStatus;
+import com.cat.robot.model.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationServiceImplTest {
+
+    private static final CommandDTO MOVE = new CommandDTO("MOVE", null, null, null);
+
+    SimulationServiceImpl simulationService;
+
+    @BeforeEach
+    void setUp() {
+        simulationService = new SimulationServiceImpl(5, 5, 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulationService.close();
+    }
+
+    @Test
+    void test_runTicks_advancesEachRobotOneCommandPerTick() {
+        simulationService.enqueue(0, List.of(new CommandDTO("PLACE", 0L, 0L, Direction.NORTH), MOVE, MOVE));
+
+        simulationService.runTicks(2);
+        assertEquals(new Position(0, 1), simulationService.getState(0).position());
+
+        SimulationStatus status = simulationService.runTicks(5);
+        assertEquals(new Position(0, 2), simulationService.getState(0).position());
+        assertEquals(7, status.tick());
+        assertFalse(status.running());
+        assertTrue(status.ticksPerSecond() > 0);
+    }
+
+    @Test
+    void test_runTicks_lowestIdWins_whenRobotsTargetSameCell() {
+        simulationService.enqueue(0, List.of(new CommandDTO("PLACE", 1L, 0L, Direction.NORTH), MOVE));
+        simulationService.enqueue(1, List.of(new CommandDTO("PLACE", 2L, 1L, Direction.WEST), MOVE));
+        simulationService.enqueue(2, List.of(new CommandDTO("PLACE", 2L, 1L, Direction.SOUTH)));
+
+        simulationService.runTicks(2);
+
+        assertEquals(new RobotState(new Position(1, 1), Direction.NORTH, true), simulationService.getState(0));
+        assertEquals(new RobotState(new Position(2, 1), Direction.WEST, true), simulationService.getState(1));
+        assertFalse(simulationService.getState(2).isPlaced());
+    }
+
+    @Test
+    void test_runTicks_blocksMove_intoCellOccupiedAtStartOfTick() {
+        simulationService.enqueue(0, List.of(new CommandDTO("PLACE", 0L, 0L, Direction.EAST), MOVE, MOVE));
+        simulationService.enqueue(1, List.of(new CommandDTO("PLACE", 1L, 0L, Direction.EAST), MOVE));
+
+        simulationService.runTicks(1);
+        // robot 1 leaves (1,0) during this tick, but robot 0 still sees it occupied
+        simulationService.runTicks(1);
+        assertEquals(new Position(0, 0), simulationService.getState(0).position());
+        assertEquals(new Position(2, 0), simulationService.getState(1).position());
+
+        simulationService.runTicks(1);
+        assertEquals(new Position(1, 0), simulationService.getState(0).position());
+    }
+
+    @Test
+    void test_runTicks_isReproducible_acrossWorkerCounts() {
+        List<RobotState> single = runRandomSimulation(1);
+        List<RobotState> parallel = runRandomSimulation(4);
+
+        assertEquals(single, parallel);
+    }
+
+    @Test
+    void test_start_runsAtFixedRate_untilStopped() throws InterruptedException {
+        simulationService.enqueue(0, List.of(new CommandDTO("PLACE", 0L, 0L, Direction.NORTH)));
+
+        SimulationStatus started = simulationService.start(200);
+        assertTrue(started.running());
+        assertEquals(200.0, started.targetTicksPerSecond(), 0.0);
+        assertThrows(SimulationRunningException.class, () -> simulationService.runTicks(1));
+
+        Thread.sleep(100);
+        SimulationStatus stopped = simulationService.stop();
+        assertFalse(stopped.running());
+        assertTrue(stopped.tick() > 0);
+        assertTrue(simulationService.getState(0).isPlaced());
+
+        long tick = stopped.tick();
+        Thread.sleep(20);
+        assertEquals(tick, simulationService.getStatus().tick());
+    }
+
+    @Test
+    void test_start_freeRuns_untilStopped() {
+        simulationService.start(0);
+        SimulationStatus stopped = simulationService.stop();
+
+        assertFalse(stopped.running());
+        assertEquals(stopped.tick(), simulationService.getStatus().tick());
+    }
+
+    @Test
+    void test_requests_areServed_whileFreeRunning() {
+        try (SimulationServiceImpl large = new SimulationServiceImpl(60, 60, 5000, 1)) {
+            large.start(0);
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 0; i < 200; i++) {
+                    large.enqueue(i, List.of(new CommandDTO("PLACE", (long) i % 60, (long) i / 60, Direction.NORTH)));
+                    large.getState(i);
+                    assertTrue(large.getStatus().running());
+                }
+            });
+            assertFalse(large.stop().running());
+        }
+    }
+
+    @Test
+    void test_start_endsRun_whenTickFails() throws InterruptedException {
+        for (double ticksPerSecond : new double[]{0, 1000}) {
+            try (SimulationServiceImpl failing = new SimulationServiceImpl(new FailingTickScheduler(3))) {
+                failing.start(ticksPerSecond);
+                for (int wait = 0; wait < 100 && failing.getStatus().running(); wait++) {
+                    Thread.sleep(10);
+                }
+
+                SimulationStatus status = failing.getStatus();
+                assertFalse(status.running());
+                assertEquals(3, status.tick());
+                assertEquals(0.0, status.targetTicksPerSecond(), 0.0);
+                assertDoesNotThrow(() -> failing.runTicks(0));
+            }
+        }
+    }
+
+    @Test
+    void test_reset_stopsAndClearsSimulation() {
+        simulationService.enqueue(0, List.of(new CommandDTO("PLACE", 0L, 0L, Direction.NORTH), MOVE));
+        simulationService.runTicks(1);
+        simulationService.start(0);
+
+        simulationService.reset();
+        simulationService.runTicks(1);
+
+        assertFalse(simulationService.getState(0).isPlaced());
+        assertEquals(1, simulationService.getStatus().tick());
+    }
+
+    @Test
+    void test_enqueue_throwsNotFound_forUnknownRobot() {
+        assertThrows(RobotNotFoundException.class, () -> simulationService.enqueue(3, List.of(MOVE)));
+        assertThrows(RobotNotFoundException.class, () -> simulationService.getState(-1));
+    }
+
+    /**
+     * Scheduler whose ticks fail once the given number of ticks has run.
+     */
+    private static final class FailingTickScheduler extends TickScheduler {
+        private final long failAt;
+
+        private FailingTickScheduler(long failAt) {
+            super(new Table(5, 5), 1, 1);
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void tick() {
+            if (tickCount() == failAt) {
+                throw new IllegalStateException("tick failed");
+            }
+            super.tick();
+        }
+    }
+
+    private static List<RobotState> runRandomSimulation(int workers) {
+        int size = 5000;
+        Random random = new Random(35);
+        try (SimulationServiceImpl simulation = new SimulationServiceImpl(60, 60, size, workers)) {
+            for (int id = 0; id < size; id++) {
+                List<CommandDTO> commands = new ArrayList<>();
+                commands.add(new CommandDTO("PLACE", (long) random.nextInt(60), (long) random.nextInt(60),
+                        Direction.values()[random.nextInt(4)]));
+                for (int i = 0; i < 30; i++) {
+                    commands.add(new CommandDTO(random.nextInt(3) == 0 ? "LEFT" : "MOVE", null, null, null));
+                }
+                simulation.enqueue(id, commands);
+            }
+            simulation.runTicks(40);
+
+            List<RobotState> states = new ArrayList<>();
+            for (int id = 0; id < size; id++) {
+                states.add(simulation.getState(id));
+            }
+            return states;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.cat.robot.service;
+
+import com.cat.robot.RobotApplication;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Boots the application on a real port twice, once on Tomcat's default pool of 200 platform
+ * threads and once with the {@code virtual-threads} profile. Each run holds
+ * {@value #STREAMING_CLIENTS} streaming HTTP clients open, each receiving the robot's report
+ * every {@value #STREAM_INTERVAL_MILLIS} ms, while other clients send short requests to
+ * {@code POST /robot/commands}. It reports how many streams the server was serving at once,
+ * how long streams waited for their first byte, and the latency of the command requests. Not
+ * part of the normal build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmark {
+
+    private static final int STREAMING_CLIENTS = 2_000;
+    private static final int STREAM_UPDATES = 4;
+    private static final long STREAM_INTERVAL_MILLIS = 250;
+    private static final int COMMAND_CLIENTS = 20;
+    private static final int COMMANDS_PER_CLIENT = 100;
+
+    private static final String PLACE = """
+            [{"type": "PLACE", "x": 2, "y": 2, "direction": "NORTH"}]
+            """;
+    private static final String COMMANDS = """
+            [{"type": "MOVE"}, {"type": "LEFT"}, {"type": "MOVE"}, {"type": "RIGHT"}]
+            """;
+
+    @Nested
+    @SpringBootTest(classes = {RobotApplication.class, ReportStreamController.class}, webEnvironment = RANDOM_PORT)
+    class PlatformThreads {
+
+        @LocalServerPort
+        int port;
+
+        @Autowired
+        ReportStreamController streams;
+
+        @Test
+        void benchmark_platformThreads() throws Exception {
+            run("platform", port, streams);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(classes = {RobotApplication.class, ReportStreamController.class}, webEnvironment = RANDOM_PORT)
+    @ActiveProfiles("virtual-threads")
+    class VirtualThreads {
+
+        @LocalServerPort
+        int port;
+
+        @Autowired
+        ReportStreamController streams;
+
+        @Test
+        void benchmark_virtualThreads() throws Exception {
+            run("virtual", port, streams);
+        }
+    }
+
+    private static void run(String name, int port, ReportStreamController streams) throws Exception {
+        URI base = URI.create("http://localhost:" + port);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clients)
+                     .build()) {
+            assertEquals(200, post(http, base.resolve("/robot/commands"), PLACE).statusCode());
+
+            long[] streamWaits = new long[STREAMING_CLIENTS];
+            List<Future<?>> streaming = new ArrayList<>(STREAMING_CLIENTS);
+            for (int client = 0; client < STREAMING_CLIENTS; client++) {
+                int index = client;
+                streaming.add(clients.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(base.resolve("/benchmark/report-stream")).build();
+                    long sent = System.nanoTime();
+                    HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        body.read();
+                        streamWaits[index] = System.nanoTime() - sent;
+                        body.transferTo(OutputStream.nullOutputStream());
+                    }
+                    return null;
+                }));
+            }
+
+            long[] latencies = new long[COMMAND_CLIENTS * COMMANDS_PER_CLIENT];
+            List<Future<?>> commanding = new ArrayList<>(COMMAND_CLIENTS);
+            for (int client = 0; client < COMMAND_CLIENTS; client++) {
+                int first = client * COMMANDS_PER_CLIENT;
+                commanding.add(clients.submit(() -> {
+                    for (int request = first; request < first + COMMANDS_PER_CLIENT; request++) {
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = post(http, base.resolve("/robot/commands"), COMMANDS);
+                        latencies[request] = System.nanoTime() - sent;
+                        assertEquals(200, response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : commanding) {
+                future.get();
+            }
+            for (Future<?> future : streaming) {
+                future.get();
+            }
+
+            Arrays.sort(streamWaits);
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %14s %16s %16s %12s %12s %12s%n", "threads", "streams served",
+                    "stream p99 wait", "command p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            System.out.printf("%-10s %14d %16.2f %16.2f %12.2f %12.2f %12.2f%n", name, streams.peakOpen(),
+                    millis(streamWaits, 0.99), millis(latencies, 0.50), millis(latencies, 0.99),
+                    millis(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static HttpResponse<String> post(HttpClient http, URI uri, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[index] / 1e6;
+    }
+
+    /**
+     * Stands in for a subscription client: writes the robot's report every
+     * {@value #STREAM_INTERVAL_MILLIS} ms from a blocking handler, holding its request thread
+     * for the whole stream like any synchronous long-poll or streaming endpoint would.
+     */
+    @RestController
+    @TestComponent
+    static class ReportStreamController {
+
+        private final RobotService robotService;
+        private final AtomicInteger open = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        ReportStreamController(RobotService robotService) {
+            this.robotService = robotService;
+        }
+
+        @GetMapping("/benchmark/report-stream")
+        void stream(HttpServletResponse response) throws IOException, InterruptedException {
+            peak.accumulateAndGet(open.incrementAndGet(), Math::max);
+            try {
+                response.setContentType("text/plain");
+                PrintWriter writer = response.getWriter();
+                for (int update = 0; update < STREAM_UPDATES; update++) {
+                    writer.println(robotService.getReport());
+                    writer.flush();
+                    Thread.sleep(STREAM_INTERVAL_MILLIS);
+                }
+            } finally {
+                open.decrementAndGet();
+            }
+        }
+
+        int peakOpen() {
+            return peak.get();
+        }
+    }
+}